@@ -0,0 +1,45 @@
+package com.example.base_pulse.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.base_pulse.demo.Address;
+import com.example.base_pulse.demo.Person;
+import com.example.base_pulse.utils.ObjectMerger;
+
+// The PATCH merge: a partial entity onto the loaded one, nested object included.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMergerBenchmark {
+
+    private Person partial;
+    private Person target;
+
+    // merging the same values again does the same reflective work, so one pair
+    // is reused rather than paying per-invocation setup on a nanosecond benchmark
+    @Setup
+    public void setup() {
+        partial = new Person("Ada", null, 37, new Address("London"));
+        target = new Person("Grace", "Hopper", 85, new Address("Arlington"));
+    }
+
+    @Benchmark
+    public Person mergeNonNullFields() {
+        ObjectMerger.mergeNonNullFields(partial, target);
+        return target;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.base_pulse.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.base_pulse.demo.Address;
+import com.example.base_pulse.demo.Person;
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.DynamicPredicateBuilder;
+import com.example.base_pulse.specifications.SearchCriteria;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+
+// Criteria to predicates against Hibernate's own CriteriaBuilder. "compiled"
+// goes through the entity's cached filter plans, "legacy" compiles per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateBuildBenchmark {
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder cb;
+    private EntityDescriptor person;
+    private List<SearchCriteria> filters;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var registry = new StandardServiceRegistryBuilder()
+                .applySettings(Map.of(
+                        AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:jmh",
+                        AvailableSettings.HBM2DDL_AUTO, "create-drop"))
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Person.class)
+                .addAnnotatedClass(Address.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        cb = sessionFactory.getCriteriaBuilder();
+        person = EntityMetadataRegistry.describe(sessionFactory.getMetamodel().entity(Person.class));
+        filters = List.of(
+                new SearchCriteria("firstName", CrudOperator.CONTAINS, "an"),
+                new SearchCriteria("age", CrudOperator.BETWEEN, "18", "65"),
+                new SearchCriteria("address.city", CrudOperator.IN, List.of("city0", "city1", "city2")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        Root<Person> root = cb.createQuery(Person.class).from(Person.class);
+        for (SearchCriteria sc : filters)
+            bh.consume(DynamicPredicateBuilder.build(sc, root, cb));
+    }
+
+    @Benchmark
+    public void compiled(Blackhole bh) {
+        Root<Person> root = cb.createQuery(Person.class).from(Person.class);
+        for (SearchCriteria sc : filters)
+            bh.consume(DynamicPredicateBuilder.build(sc, person, root, cb));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.base_pulse.benchmarks;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.QueryCriteriaBuilder;
+import com.example.base_pulse.utils.TypeConverter;
+
+// Request parameters to criteria: everything that runs before a query is built.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParsingBenchmark {
+
+    private static final String[] OPERATORS = { "eq", "gte", "contains", "not-startswith", "in", "between" };
+
+    private Map<String, String> params;
+
+    @Setup
+    public void setup() {
+        params = new HashMap<>();
+        params.put("entity", "Person");
+        params.put("fields", "id,firstName,lastName");
+        params.put("size", "50");
+
+        params.put("filters[0][field]", "firstName");
+        params.put("filters[0][operator]", "contains");
+        params.put("filters[0][value]", "an");
+
+        params.put("filters[1][field]", "age");
+        params.put("filters[1][operator]", "between");
+        params.put("filters[1][value][0]", "18");
+        params.put("filters[1][value][1]", "65");
+
+        params.put("filters[2][field]", "address.city");
+        params.put("filters[2][operator]", "in");
+        for (int i = 0; i < 5; i++)
+            params.put("filters[2][value][" + i + "]", "city" + i);
+
+        params.put("sort[0][field]", "lastName");
+        params.put("sort[0][order]", "desc");
+        params.put("sort[1][field]", "id");
+        params.put("sort[1][order]", "asc");
+    }
+
+    @Benchmark
+    public List<SearchCriteria> parseFilters() {
+        return QueryCriteriaBuilder.parseFiltersFromParams(params);
+    }
+
+    @Benchmark
+    public List<SortCriteria> parseSorts() {
+        return QueryCriteriaBuilder.parseSortsFromParams(params);
+    }
+
+    @Benchmark
+    public void fromOperator(Blackhole bh) {
+        for (String operator : OPERATORS)
+            bh.consume(CrudOperator.fromOperator(operator));
+    }
+
+    @Benchmark
+    public void parseValue(Blackhole bh) {
+        bh.consume(TypeConverter.parseValue("42", Integer.class));
+        bh.consume(TypeConverter.parseValue("9000000000", Long.class));
+        bh.consume(TypeConverter.parseValue("2024-02-29", LocalDate.class));
+        bh.consume(TypeConverter.parseValue("text", String.class));
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.base_pulse.bulkhead;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.example.base_pulse.metrics.Histogram;
+import com.example.base_pulse.metrics.RequestTimings;
+
+// Caps how many calls run at once. Up to queueDepth more wait, each at most
+// maxWait; anyone beyond that is turned away at once.
+//
+// With adaptive set, the cap moves between 1 and permits: it grows by one per
+// limit's worth of calls that finish close to the fastest latency seen, and
+// shrinks by a tenth when a call takes more than twice as long. The fastest
+// latency is re-learnt every RTT_WINDOW calls, so it follows the data.
+public class Bulkhead {
+
+    private static final double TOLERANCE = 2.0;
+    private static final double BACKOFF = 0.9;
+    private static final int RTT_WINDOW = 500;
+
+    public record Config(int permits, int queueDepth, long maxWaitMs, boolean adaptive, int retryAfterSeconds) {
+    }
+
+    // a permit taken with tryAcquire; close gives it back
+    public interface Permit extends AutoCloseable {
+
+        Permit NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    public record Stats(
+            int limit,
+            int permits,
+            int active,
+            int queued,
+            long admitted,
+            long rejected,
+            long timedOut,
+            Histogram.Snapshot queueWait,
+            Histogram.Snapshot latency) {
+    }
+
+    private final String name;
+    private final Config config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private int active;
+    private int queued;
+    private double limit;
+
+    private long minRtt = Long.MAX_VALUE;
+    private long nextMinRtt = Long.MAX_VALUE;
+    private int rttSamples;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final Histogram queueWait = new Histogram();
+    private final Histogram latency = new Histogram();
+
+    public Bulkhead(String name, Config config) {
+        if (config.permits() < 1) {
+            throw new IllegalArgumentException("A bulkhead needs at least one permit");
+        }
+        this.name = name;
+        this.config = config;
+        this.limit = config.permits();
+    }
+
+    // wait=false never queues: for callers that already hold a connection
+    public <T> T execute(Supplier<T> call, boolean wait) {
+        long waited = acquire(wait);
+        queueWait.recordNanos(waited);
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null && waited > 0) {
+            timings.add(RequestTimings.QUEUE, waited);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            release(System.nanoTime() - start);
+        }
+    }
+
+    // A permit for work that needs a connection of its own next to a call
+    // already running, such as a parallel count. Never waits: null when the
+    // limit is reached, so the caller can do the work on its own connection.
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (active >= (int) limit) {
+                return null;
+            }
+            active++;
+            admitted.increment();
+        } finally {
+            lock.unlock();
+        }
+
+        long start = System.nanoTime();
+        return () -> release(System.nanoTime() - start);
+    }
+
+    // returns how long the caller waited
+    private long acquire(boolean wait) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (active < (int) limit) {
+                active++;
+                admitted.increment();
+                return 0;
+            }
+            if (!wait || queued >= config.queueDepth()) {
+                rejected.increment();
+                throw full();
+            }
+
+            queued++;
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(config.maxWaitMs());
+                while (active >= (int) limit) {
+                    if (remaining <= 0) {
+                        timedOut.increment();
+                        throw full();
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                throw full();
+            } finally {
+                queued--;
+            }
+
+            active++;
+            admitted.increment();
+            return System.nanoTime() - start;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long rtt) {
+        latency.recordNanos(rtt);
+        lock.lock();
+        try {
+            active--;
+            int before = (int) limit;
+            if (config.adaptive()) {
+                adapt(rtt);
+            }
+            if ((int) limit > before) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adapt(long rtt) {
+        nextMinRtt = Math.min(nextMinRtt, rtt);
+        if (++rttSamples >= RTT_WINDOW) {
+            minRtt = nextMinRtt;
+            nextMinRtt = Long.MAX_VALUE;
+            rttSamples = 0;
+        }
+        minRtt = Math.min(minRtt, rtt);
+
+        if (rtt > minRtt * TOLERANCE) {
+            limit = Math.max(1, limit * BACKOFF);
+        } else {
+            limit = Math.min(config.permits(), limit + 1.0 / limit);
+        }
+    }
+
+    private BulkheadFullException full() {
+        return new BulkheadFullException(name, config.retryAfterSeconds());
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats((int) limit, config.permits(), active, queued, admitted.sum(), rejected.sum(),
+                    timedOut.sum(), queueWait.snapshot(), latency.snapshot());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
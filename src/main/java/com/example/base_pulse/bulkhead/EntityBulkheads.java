@@ -0,0 +1,84 @@
+package com.example.base_pulse.bulkhead;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// One bulkhead per entity, so a slow entity can only take its own share of
+// the connection pool. Off unless base-pulse.bulkhead.enabled=true;
+// base-pulse.bulkhead.* sets the defaults and
+// base-pulse.bulkhead.entity.<Entity>.* overrides them.
+@Component
+public class EntityBulkheads {
+
+    private static final String PREFIX = "base-pulse.bulkhead.";
+
+    // entities whose permit this thread already holds; nested calls pass through
+    private static final ThreadLocal<Set<String>> HELD = ThreadLocal.withInitial(HashSet::new);
+
+    private final Environment environment;
+    private final boolean enabled;
+    private final Bulkhead.Config defaults;
+    private final ConcurrentHashMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public EntityBulkheads(Environment environment) {
+        this.environment = environment;
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, false);
+        this.defaults = config(PREFIX, new Bulkhead.Config(8, 32, 2000, false, 1));
+    }
+
+    // Calls inside a transaction already hold a connection, so holding them up
+    // here would only pin it longer; they are let through.
+    public <T> T execute(String entity, Supplier<T> call) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()
+                || !HELD.get().add(entity)) {
+            return call.get();
+        }
+        try {
+            return bulkhead(entity).execute(call, true);
+        } finally {
+            HELD.get().remove(entity);
+        }
+    }
+
+    public void run(String entity, Runnable call) {
+        execute(entity, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    // An extra permit for a second connection, taken even when this thread
+    // already holds one for the entity. Null when none is free; NONE when
+    // bulkheads are off.
+    public Bulkhead.Permit tryAcquire(String entity) {
+        return enabled ? bulkhead(entity).tryAcquire() : Bulkhead.Permit.NONE;
+    }
+
+    public Map<String, Bulkhead.Stats> stats() {
+        Map<String, Bulkhead.Stats> stats = new TreeMap<>();
+        bulkheads.forEach((entity, bulkhead) -> stats.put(entity, bulkhead.stats()));
+        return stats;
+    }
+
+    private Bulkhead bulkhead(String entity) {
+        return bulkheads.computeIfAbsent(entity,
+                name -> new Bulkhead(name, config(PREFIX + "entity." + name + ".", defaults)));
+    }
+
+    private Bulkhead.Config config(String prefix, Bulkhead.Config fallback) {
+        return new Bulkhead.Config(
+                environment.getProperty(prefix + "permits", Integer.class, fallback.permits()),
+                environment.getProperty(prefix + "queue-depth", Integer.class, fallback.queueDepth()),
+                environment.getProperty(prefix + "max-wait-ms", Long.class, fallback.maxWaitMs()),
+                environment.getProperty(prefix + "adaptive", Boolean.class, fallback.adaptive()),
+                environment.getProperty(prefix + "retry-after-seconds", Integer.class, fallback.retryAfterSeconds()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.base_pulse.cache;
+
+public record CacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        long expirations,
+        long invalidations,
+        int size,
+        int maxSize) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
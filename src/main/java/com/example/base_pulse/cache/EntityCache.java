@@ -0,0 +1,122 @@
+package com.example.base_pulse.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.example.base_pulse.entities.annotations.ReadThroughCache;
+
+// Bounded LRU region with a TTL, keyed by id. Values are serialized
+// snapshots, so no caller ever shares an instance with the cache.
+public class EntityCache {
+
+    private record Entry(byte[] value, long expiresAt) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> entries;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // bumped by every invalidation; a load that started before it is not stored
+    private long generation;
+
+    public EntityCache(int maxSize, long ttl, TimeUnit unit) {
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= EntityCache.this.maxSize)
+                    return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public static EntityCache of(ReadThroughCache config) {
+        return config == null ? null : new EntityCache(config.maxSize(), config.ttlSeconds(), TimeUnit.SECONDS);
+    }
+
+    public byte[] get(Long id) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(id);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(Long id, byte[] value, long loadedAt) {
+        lock.lock();
+        try {
+            if (loadedAt == generation)
+                entries.put(id, new Entry(value, System.nanoTime() + ttlNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(Long id) {
+        lock.lock();
+        try {
+            generation++;
+            if (entries.remove(id) != null)
+                invalidations.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            invalidations.add(entries.size());
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), invalidations.sum(),
+                size, maxSize);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.base_pulse.cache;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.Entity;
+
+// Write counters per entity type. A cached result remembers the stamp it was
+// read under and is stale as soon as the stamp moves.
+@Component
+public class EntityVersions {
+
+    private final ConcurrentHashMap<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // a write to a subclass also changes what queries on its parents return
+    public void bump(Class<?> type) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            versions.computeIfAbsent(c, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public long version(Class<?> type) {
+        AtomicLong version = versions.get(type);
+        return version == null ? 0 : version.get();
+    }
+
+    // Counters only grow, so the sum moves whenever any of them does. Parent
+    // entities count too: a service for the parent type may have written a
+    // row of this subtype.
+    public long stamp(Class<?> type, Set<Class<?>> related) {
+        long stamp = lineage(type);
+        for (Class<?> c : related) {
+            stamp += lineage(c);
+        }
+        return stamp;
+    }
+
+    private long lineage(Class<?> type) {
+        long sum = version(type);
+        Class<?> parent = type.getSuperclass();
+        while (parent != null && parent.isAnnotationPresent(Entity.class)) {
+            sum += version(parent);
+            parent = parent.getSuperclass();
+        }
+        return sum;
+    }
+}
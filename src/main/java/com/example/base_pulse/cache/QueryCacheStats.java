@@ -0,0 +1,18 @@
+package com.example.base_pulse.cache;
+
+public record QueryCacheStats(
+        long hits,
+        long misses,
+        long stale,
+        long evictions,
+        long expirations,
+        long rejected,
+        int entries,
+        long bytes,
+        long maxBytes) {
+
+    public double hitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.base_pulse.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.specifications.CountMode;
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.FilterPlan;
+import com.example.base_pulse.specifications.PageCriteria;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.PageCounter;
+
+// Canonical form of a dynamic query. Filters are ANDed, so their order does
+// not matter; values are compared after conversion to the attribute type, so
+// "5" and "05" on an Integer field are the same query.
+public record QueryKey(
+        String entity,
+        List<String> fields,
+        List<FilterKey> filters,
+        List<String> sort,
+        boolean keyset,
+        long offset,
+        int size,
+        String cursor,
+        CountMode countMode,
+        int countCap) {
+
+    public record FilterKey(String field, CrudOperator operator, List<Object> values) {
+    }
+
+    private static final Comparator<FilterKey> FILTER_ORDER = Comparator.comparing(FilterKey::field)
+            .thenComparing(FilterKey::operator)
+            .thenComparing(f -> f.values().toString());
+
+    public static QueryKey of(EntityDescriptor entity, List<String> fields, List<FilterPlan> plans,
+            List<SearchCriteria> filters, List<SortCriteria> sort, Pageable pageable, PageCriteria page,
+            boolean keyset) {
+
+        List<FilterKey> filterKeys = new ArrayList<>(plans.size());
+        for (int i = 0; i < plans.size(); i++) {
+            FilterPlan plan = plans.get(i);
+            List<Object> values = plan.values(filters.get(i));
+            CrudOperator operator = plan.getShape().operator();
+            if (operator == CrudOperator.IN || operator == CrudOperator.NIN) {
+                values = sorted(values);
+            }
+            filterKeys.add(new FilterKey(plan.getShape().field(), operator, values));
+        }
+        filterKeys.sort(FILTER_ORDER);
+
+        List<String> sortKeys = new ArrayList<>();
+        if (sort != null) {
+            for (SortCriteria sc : sort) {
+                sortKeys.add(sc.getField() + ":" + sc.getDirection());
+            }
+        }
+
+        boolean paged = pageable != null && pageable.isPaged();
+        return new QueryKey(
+                entity.getName(),
+                List.copyOf(fields),
+                List.copyOf(filterKeys),
+                List.copyOf(sortKeys),
+                keyset,
+                paged && !keyset ? pageable.getOffset() : 0,
+                paged ? pageable.getPageSize() : -1,
+                keyset ? page.getCursor() : null,
+                PageCounter.resolveMode(page, entity),
+                PageCounter.resolveCap(page, entity));
+    }
+
+    // IN lists are sets: order and duplicates do not change the result
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static List<Object> sorted(List<Object> values) {
+        List<Object> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        boolean comparable = distinct.stream().allMatch(v -> v instanceof Comparable);
+        distinct.sort(comparable
+                ? (a, b) -> ((Comparable) a).compareTo(b)
+                : Comparator.comparing(String::valueOf));
+        return distinct;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.base_pulse.cache;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.utils.PageResult;
+
+// Result pages of entities marked @CachedQueries, bounded by an estimate of
+// their heap size and evicted least recently used first.
+@Component
+public class QueryResultCache {
+
+    private record Entry(PageResult<Map<String, Object>> page, long stamp, long expiresAt, long weight) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<QueryKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final EntityVersions versions;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public QueryResultCache(
+            EntityVersions versions,
+            @Value("${base-pulse.query-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${base-pulse.query-cache.max-entry-bytes:1048576}") long maxEntryBytes) {
+        this.versions = versions;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public long stamp(EntityDescriptor entity) {
+        return versions.stamp(entity.getJavaType(), entity.getRelated());
+    }
+
+    public PageResult<Map<String, Object>> get(QueryKey key, long stamp) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.stamp() != stamp) {
+                remove(key, entry);
+                stale.increment();
+                entry = null;
+            } else if (entry != null && entry.expiresAt() - System.nanoTime() <= 0) {
+                remove(key, entry);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            // callers get their own PageResult around the shared, read-only rows
+            return entry.page().copy();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // stamp is the one taken before the query ran, so a write that landed
+    // meanwhile leaves the entry stale on arrival
+    public void put(QueryKey key, PageResult<Map<String, Object>> page, long stamp, long ttlSeconds) {
+        long weight = weigh(key, page);
+        if (weight > maxEntryBytes) {
+            rejected.increment();
+            return;
+        }
+
+        Entry entry = new Entry(freeze(page), stamp, System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds),
+                weight);
+
+        lock.lock();
+        try {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.weight();
+            }
+            bytes += weight;
+
+            Iterator<Map.Entry<QueryKey, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Entry evicted = eldest.next().getValue();
+                eldest.remove();
+                bytes -= evicted.weight();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public QueryCacheStats stats() {
+        lock.lock();
+        try {
+            return new QueryCacheStats(hits.sum(), misses.sum(), stale.sum(), evictions.sum(), expirations.sum(),
+                    rejected.sum(), entries.size(), bytes, maxBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(QueryKey key, Entry entry) {
+        entries.remove(key);
+        bytes -= entry.weight();
+    }
+
+    private static PageResult<Map<String, Object>> freeze(PageResult<Map<String, Object>> page) {
+        List<Map<String, Object>> rows = new ArrayList<>(page.getContent().size());
+        for (Map<String, Object> row : page.getContent()) {
+            rows.add(Collections.unmodifiableMap(new LinkedHashMap<>(row)));
+        }
+        PageResult<Map<String, Object>> frozen = page.copy();
+        frozen.setContent(Collections.unmodifiableList(rows));
+        return frozen;
+    }
+
+    // rough heap estimate; good enough to keep the total near the limit
+    private static long weigh(QueryKey key, PageResult<Map<String, Object>> page) {
+        long weight = 256 + 2L * key.toString().length();
+        for (Map<String, Object> row : page.getContent()) {
+            weight += 64;
+            for (Map.Entry<String, Object> e : row.entrySet()) {
+                weight += 48 + weigh(e.getValue());
+            }
+        }
+        return weight;
+    }
+
+    private static long weigh(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence s) {
+            return 48 + 2L * s.length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 24;
+        }
+        if (value instanceof Temporal) {
+            return 48;
+        }
+        return 32 + 2L * String.valueOf(value).length();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.base_pulse.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BatchConfiguration {
+
+  public static final int DEFAULT_JDBC_BATCH_SIZE = 50;
+
+  // JDBC batching for the /batch endpoints. Inserts only batch when ids do
+  // not come from an IDENTITY column. Explicit settings in
+  // spring.jpa.properties still win.
+  @Bean
+  HibernatePropertiesCustomizer batchHibernateProperties() {
+    return properties -> {
+      properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, DEFAULT_JDBC_BATCH_SIZE);
+      properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+      properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+      properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, true);
+    };
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.base_pulse.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.base_pulse.entities.PooledSequenceGenerator;
+
+@Configuration
+public class IdGenerationConfiguration {
+
+  // Hands the base-pulse.id.* properties to PooledSequenceGenerator, which
+  // only sees Hibernate settings.
+  @Bean
+  HibernatePropertiesCustomizer idGenerationHibernateProperties(
+      @Value("${base-pulse.id.allocation-size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize,
+      @Value("${base-pulse.id.optimizer:" + PooledSequenceGenerator.DEFAULT_OPTIMIZER + "}") String optimizer) {
+    return properties -> {
+      properties.putIfAbsent(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, allocationSize);
+      properties.putIfAbsent(PooledSequenceGenerator.OPTIMIZER_SETTING, optimizer);
+    };
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.base_pulse.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.base_pulse.utils.SkipUnloadedModule;
+
+// With base-pulse.json.skip-unloaded=true entity JSON only carries the
+// associations that were loaded, so listing a page never triggers one lazy
+// load per row. Off by default: the module applies to every ObjectMapper
+// response in the application, not only to base-pulse endpoints.
+@Configuration
+@ConditionalOnProperty(name = "base-pulse.json.skip-unloaded", havingValue = "true")
+public class SerializationConfiguration {
+
+  // picked up by Spring Boot's ObjectMapper like any other Module bean
+  @Bean
+  SkipUnloadedModule skipUnloadedModule() {
+    return new SkipUnloadedModule();
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.base_pulse.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.metrics.RequestMetrics;
+import com.example.base_pulse.metrics.RequestTimingFilter;
+import com.example.base_pulse.metrics.RequestTimingInterceptor;
+import com.example.base_pulse.metrics.StatementCounter;
+
+// Per-request phase timing: Server-Timing headers plus the histograms behind
+// /metrics/requests, when base-pulse.timing.enabled=true.
+@Configuration
+public class TimingConfiguration {
+
+  // Counts statements and captures their SQL text for the timing and for the
+  // slow query log. An application's own statement inspector wins; statement
+  // counts then stay 0 and the slow query log records no SQL.
+  @Bean
+  @ConditionalOnProperty(name = "base-pulse.timing.enabled", havingValue = "true")
+  HibernatePropertiesCustomizer timingHibernateProperties() {
+    return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "base-pulse.timing.enabled", havingValue = "true")
+  FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(RequestMetrics metrics) {
+    FilterRegistrationBean<RequestTimingFilter> registration = new FilterRegistrationBean<>(
+        new RequestTimingFilter(metrics));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+    return registration;
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "base-pulse.timing.enabled", havingValue = "true")
+  WebMvcConfigurer requestTimingInterceptor(EntityMetadataRegistry registry) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new RequestTimingInterceptor(registry));
+      }
+    };
+  }
+}
@@ -3,6 +3,8 @@ package com.example.base_pulse.controllers;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ResolvableType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
@@ -16,20 +18,33 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import com.example.base_pulse.controllers.annotations.DisableCrud;
-import com.example.base_pulse.entities.BaseEntity;
+import com.example.base_pulse.entities.AbstractBaseEntity;
+import com.example.base_pulse.metadata.CrudPolicy;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.metadata.QueryPolicy;
+import com.example.base_pulse.metrics.RequestTimings;
 import com.example.base_pulse.services.BaseService;
+import com.example.base_pulse.specifications.PageCriteria;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.BatchResult;
 import com.example.base_pulse.utils.PageResult;
 import com.example.base_pulse.utils.QueryCriteriaBuilder;
 
-public abstract class BaseController<T extends BaseEntity> {
+public abstract class BaseController<T extends AbstractBaseEntity> {
 
     protected final BaseService<T> service;
 
+    private final CrudPolicy crudPolicy;
+
+    @Autowired(required = false)
+    private EntityMetadataRegistry metadataRegistry;
+
+    private volatile QueryPolicy queryPolicy;
+
     public BaseController(BaseService<T> service) {
         this.service = service;
+        this.crudPolicy = CrudPolicy.of(getClass());
     }
 
     @PostMapping
@@ -43,6 +58,39 @@ public abstract class BaseController<T extends BaseEntity> {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createBatch(@RequestBody List<T> dtos) {
+        if (isDisabled("create")) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                    .header("Allow", buildAllowedMethods())
+                    .build();
+        }
+        queryPolicy().checkBatch(dtos.size());
+        return batchResponse(service.createAll(dtos));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<BatchResult> patchBatch(@RequestBody List<T> dtos) {
+        if (isDisabled("update")) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                    .header("Allow", buildAllowedMethods())
+                    .build();
+        }
+        queryPolicy().checkBatch(dtos.size());
+        return batchResponse(service.patchAll(dtos));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResult> deleteBatch(@RequestBody List<Long> ids) {
+        if (isDisabled("delete")) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                    .header("Allow", buildAllowedMethods())
+                    .build();
+        }
+        queryPolicy().checkBatch(ids.size());
+        return batchResponse(service.deleteAllByIds(ids));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<T> replace(@PathVariable Long id, @RequestBody T dto) {
         if (isDisabled("update")) {
@@ -64,13 +112,26 @@ public abstract class BaseController<T extends BaseEntity> {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<T> getById(@PathVariable Long id) {
+    public ResponseEntity<T> getById(@PathVariable Long id,
+            @RequestParam(required = false) String expand) {
         if (isDisabled("read")) {
             return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
                     .header("Allow", buildAllowedMethods())
                     .build();
         }
-        return ResponseEntity.ok(service.findById(id));
+        return ResponseEntity.ok(service.findById(id, QueryCriteriaBuilder.parseExpand(expand)));
+    }
+
+    // getById with fields=id,name: only those columns are selected
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getFieldsById(@PathVariable Long id,
+            @RequestParam String fields) {
+        if (isDisabled("read")) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                    .header("Allow", buildAllowedMethods())
+                    .build();
+        }
+        return ResponseEntity.ok(service.findFieldsById(id, QueryCriteriaBuilder.parseFields(fields)));
     }
 
     @GetMapping
@@ -84,9 +145,45 @@ public abstract class BaseController<T extends BaseEntity> {
                     .build();
         }
 
-        List<SearchCriteria> searchCriterias = QueryCriteriaBuilder.parseFiltersFromParams(requestParams);
-        List<SortCriteria> sort = QueryCriteriaBuilder.parseSortsFromParams(requestParams);
-        return ResponseEntity.ok(service.findAll(pageable, searchCriterias, sort));
+        List<SearchCriteria> searchCriterias;
+        List<SortCriteria> sort;
+        PageCriteria page;
+        List<String> expand;
+        try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.PARSE)) {
+            searchCriterias = QueryCriteriaBuilder.parseFiltersFromParams(requestParams);
+            sort = QueryCriteriaBuilder.parseSortsFromParams(requestParams);
+            page = QueryCriteriaBuilder.parsePageFromParams(requestParams);
+            expand = QueryCriteriaBuilder.parseExpand(requestParams.get("expand"));
+            queryPolicy().check(searchCriterias, sort, pageable);
+        }
+        return ResponseEntity.ok(service.findAll(pageable, searchCriterias, sort, page, expand));
+    }
+
+    // getAll with fields=id,name: rows hold only those fields, selected as a
+    // tuple query instead of loading whole entities
+    @GetMapping(params = "fields")
+    public ResponseEntity<PageResult<Map<String, Object>>> getAllFields(
+            @RequestParam Map<String, String> requestParams,
+            @PageableDefault(size = 20, page = 0) Pageable pageable) {
+
+        if (isDisabled("read")) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                    .header("Allow", buildAllowedMethods())
+                    .build();
+        }
+
+        List<SearchCriteria> searchCriterias;
+        List<SortCriteria> sort;
+        PageCriteria page;
+        List<String> fields;
+        try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.PARSE)) {
+            searchCriterias = QueryCriteriaBuilder.parseFiltersFromParams(requestParams);
+            sort = QueryCriteriaBuilder.parseSortsFromParams(requestParams);
+            page = QueryCriteriaBuilder.parsePageFromParams(requestParams);
+            fields = QueryCriteriaBuilder.parseFields(requestParams.get("fields"));
+            queryPolicy().check(searchCriterias, sort, pageable);
+        }
+        return ResponseEntity.ok(service.findFields(pageable, searchCriterias, sort, page, fields));
     }
 
     @DeleteMapping("/{id}")
@@ -112,47 +209,41 @@ public abstract class BaseController<T extends BaseEntity> {
         }
 
         List<SearchCriteria> searchCriterias = QueryCriteriaBuilder.parseFiltersFromParams(requestParams);
+        queryPolicy().check(searchCriterias);
 
         service.deleteAll(searchCriterias);
 
         return ResponseEntity.noContent().build();
     }
 
-    private boolean isDisabled(String action) {
-        DisableCrud annotation = this.getClass().getAnnotation(DisableCrud.class);
-        if (annotation == null)
-            return false;
+    public CrudPolicy getCrudPolicy() {
+        return crudPolicy;
+    }
 
-        return switch (action) {
-            case "create" -> annotation.create();
-            case "read" -> annotation.read();
-            case "update" -> annotation.update();
-            case "delete" -> annotation.delete();
-            default -> false;
-        };
+    // 207 when only some items went through; each item carries its own status
+    private ResponseEntity<BatchResult> batchResponse(BatchResult result) {
+        return ResponseEntity.status(result.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS)
+                .body(result);
     }
 
-    private String buildAllowedMethods() {
-        DisableCrud annotation = this.getClass().getAnnotation(DisableCrud.class);
-        if (annotation == null) {
-            return "GET, POST, PUT, PATCH, DELETE";
+    // the entity's limits; the defaults when the controller runs without the registry
+    protected QueryPolicy queryPolicy() {
+        QueryPolicy current = queryPolicy;
+        if (current == null) {
+            Class<?> entity = ResolvableType.forClass(BaseController.class, getClass()).resolveGeneric(0);
+            current = metadataRegistry != null && entity != null
+                    ? metadataRegistry.get(entity).getQueryPolicy()
+                    : QueryPolicy.DEFAULT;
+            queryPolicy = current;
         }
+        return current;
+    }
 
-        StringBuilder allow = new StringBuilder();
-
-        if (!annotation.read())
-            allow.append("GET, ");
-        if (!annotation.create())
-            allow.append("POST, ");
-        if (!annotation.update())
-            allow.append("PUT, PATCH, ");
-        if (!annotation.delete())
-            allow.append("DELETE, ");
-
-        if (allow.length() > 2) {
-            allow.setLength(allow.length() - 2);
-        }
+    private boolean isDisabled(String action) {
+        return !crudPolicy.isEnabled(action);
+    }
 
-        return allow.toString();
+    private String buildAllowedMethods() {
+        return crudPolicy.getAllowHeader();
     }
 }
@@ -1,22 +1,35 @@
 package com.example.base_pulse.controllers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.base_pulse.bulkhead.EntityBulkheads;
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.metrics.RequestTimings;
 import com.example.base_pulse.services.DynamicQueryService;
+import com.example.base_pulse.specifications.PageCriteria;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.ExportFormat;
 import com.example.base_pulse.utils.PageResult;
 import com.example.base_pulse.utils.QueryCriteriaBuilder;
+import com.example.base_pulse.utils.RowWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,31 +39,85 @@ import lombok.RequiredArgsConstructor;
 public class DynamicQueryController {
 
   private final DynamicQueryService dynamicService;
+  private final ObjectMapper objectMapper;
+  private final EntityMetadataRegistry registry;
+  private final EntityBulkheads bulkheads;
 
   @GetMapping("/{entity}")
   public ResponseEntity<PageResult<Map<String, Object>>> findList(
       @PathVariable String entity,
       @RequestParam Map<String, String> params,
       @PageableDefault(size = 20, page = 0) Pageable pageable) {
-    List<SearchCriteria> filters = QueryCriteriaBuilder.parseFiltersFromParams(params);
-    List<SortCriteria> sorts = QueryCriteriaBuilder.parseSortsFromParams(params);
-    List<String> fields = parseFields(params);
+    List<SearchCriteria> filters;
+    List<SortCriteria> sorts;
+    List<String> fields;
+    PageCriteria page;
+    try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.PARSE)) {
+      filters = QueryCriteriaBuilder.parseFiltersFromParams(params);
+      sorts = QueryCriteriaBuilder.parseSortsFromParams(params);
+      fields = parseFields(params);
+      page = QueryCriteriaBuilder.parsePageFromParams(params);
+      registry.get(entity).getQueryPolicy().check(filters, sorts, pageable);
+    }
 
     return ResponseEntity.ok(
-        dynamicService.findList(entity, fields, filters, sorts, pageable));
+        dynamicService.findList(entity, fields, filters, sorts, pageable, page));
   }
 
   @GetMapping("/{entity}/one")
   public ResponseEntity<Map<String, Object>> findOne(
       @PathVariable String entity,
       @RequestParam Map<String, String> params) {
-    List<SearchCriteria> filters = QueryCriteriaBuilder.parseFiltersFromParams(params);
-    List<String> fields = parseFields(params);
+    List<SearchCriteria> filters;
+    List<String> fields;
+    try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.PARSE)) {
+      filters = QueryCriteriaBuilder.parseFiltersFromParams(params);
+      fields = parseFields(params);
+      registry.get(entity).getQueryPolicy().check(filters);
+    }
 
     return ResponseEntity.ok(
         dynamicService.findOne(entity, fields, filters));
   }
 
+  // Rows go to the client as the result is scrolled, without paging or a
+  // total. Long exports may need spring.mvc.async.request-timeout raised;
+  // the query timeout of base-pulse.limits is not applied here.
+  @GetMapping("/{entity}/stream")
+  public ResponseEntity<StreamingResponseBody> stream(
+      @PathVariable String entity,
+      @RequestParam Map<String, String> params) {
+    List<SearchCriteria> filters = QueryCriteriaBuilder.parseFiltersFromParams(params);
+    List<SortCriteria> sorts = QueryCriteriaBuilder.parseSortsFromParams(params);
+    List<String> fields = parseFields(params);
+    ExportFormat format = ExportFormat.fromFormat(params.getOrDefault("format", "ndjson"));
+    EntityDescriptor descriptor = registry.get(entity);
+    descriptor.getQueryPolicy().check(filters, sorts, null);
+
+    StreamingResponseBody body = out -> {
+      RowWriter writer = format.writer(out, fields, objectMapper);
+      try {
+        // the permit is taken here, before stream() opens its transaction
+        bulkheads.run(descriptor.getName(), () -> dynamicService.stream(entity, fields, filters, sorts, row -> {
+          try {
+            writer.write(row);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      writer.finish();
+    };
+
+    return ResponseEntity.ok()
+        .contentType(format.getMediaType())
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(entity + "." + format.getExtension()).build().toString())
+        .body(body);
+  }
+
   private List<String> parseFields(Map<String, String> params) {
     if (params.containsKey("fields")) {
       String csv = params.get("fields");
@@ -0,0 +1,42 @@
+package com.example.base_pulse.entities;
+
+import jakarta.persistence.MappedSuperclass;
+import java.io.Serializable;
+import java.util.Objects;
+
+// Common root for BaseEntity (IDENTITY ids) and PooledBaseEntity (sequence
+// ids); subclasses only map the id.
+@MappedSuperclass
+public abstract class AbstractBaseEntity implements Serializable {
+
+    public abstract Long getId();
+
+    public abstract void setId(Long id);
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null)
+            return false;
+        if (!(o instanceof AbstractBaseEntity))
+            return false;
+
+        AbstractBaseEntity that = (AbstractBaseEntity) o;
+
+        if (this.getId() == null || that.getId() == null)
+            return false;
+
+        return Objects.equals(this.getId(), that.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(id=" + getId() + ")";
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.base_pulse.entities;
+
+import com.example.base_pulse.entities.annotations.PooledSequence;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+
+// Ids come from a per-entity sequence ("<Entity>_SEQ") through a pooled
+// optimizer, so Hibernate can batch inserts instead of running each one
+// immediately to read back an IDENTITY key.
+@MappedSuperclass
+public abstract class PooledBaseEntity extends AbstractBaseEntity {
+
+    @Id
+    @PooledSequence
+    private Long id;
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
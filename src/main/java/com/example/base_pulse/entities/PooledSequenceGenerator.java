@@ -0,0 +1,53 @@
+package com.example.base_pulse.entities;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import com.example.base_pulse.entities.annotations.PooledSequence;
+import com.example.base_pulse.entities.annotations.SequenceAllocation;
+
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+  // Hibernate settings; IdGenerationConfiguration fills them from the
+  // base-pulse.id.* Spring properties
+  public static final String ALLOCATION_SIZE_SETTING = "base_pulse.id.allocation_size";
+  public static final String OPTIMIZER_SETTING = "base_pulse.id.optimizer";
+
+  public static final int DEFAULT_ALLOCATION_SIZE = 50;
+  public static final String DEFAULT_OPTIMIZER = "pooled";
+
+  private final SequenceAllocation allocation;
+
+  public PooledSequenceGenerator(PooledSequence config, Member member, CustomIdGeneratorCreationContext context) {
+    this.allocation = context.getPersistentClass().getMappedClass().getAnnotation(SequenceAllocation.class);
+  }
+
+  @Override
+  public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+    ConfigurationService settings = serviceRegistry.requireService(ConfigurationService.class);
+
+    int size = allocation != null && allocation.size() > 0
+        ? allocation.size()
+        : settings.getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+    String optimizer = allocation != null && !allocation.optimizer().isEmpty()
+        ? allocation.optimizer()
+        : settings.getSetting(OPTIMIZER_SETTING, StandardConverters.STRING, DEFAULT_OPTIMIZER);
+
+    if (size < 1)
+      throw new MappingException("Sequence allocation size must be positive: " + size);
+
+    params.setProperty(INCREMENT_PARAM, String.valueOf(size));
+    params.setProperty(OptimizableGenerator.OPT_PARAM, optimizer);
+
+    super.configure(type, params, serviceRegistry);
+  }
+}
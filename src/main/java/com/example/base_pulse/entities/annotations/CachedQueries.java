@@ -0,0 +1,14 @@
+package com.example.base_pulse.entities.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Caches /dynamic pages of this entity until a write through BaseServiceImpl
+// or the TTL ends them.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedQueries {
+  long ttlSeconds() default 60;
+}
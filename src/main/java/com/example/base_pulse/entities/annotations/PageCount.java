@@ -0,0 +1,16 @@
+package com.example.base_pulse.entities.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.example.base_pulse.specifications.CountMode;
+
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PageCount {
+  CountMode mode() default CountMode.EXACT;
+
+  int cap() default 1000;
+}
@@ -0,0 +1,19 @@
+package com.example.base_pulse.entities.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import com.example.base_pulse.entities.PooledSequenceGenerator;
+
+// Marks the id of PooledBaseEntity. Allocation size and optimizer come from
+// base-pulse.id.allocation-size / base-pulse.id.optimizer unless the entity
+// class carries @SequenceAllocation.
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PooledSequence {
+}
@@ -0,0 +1,35 @@
+package com.example.base_pulse.entities.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Per-entity overrides of the base-pulse.limits.* defaults; a limit left at
+// INHERIT keeps the default, QueryPolicy.UNLIMITED lifts it. Empty allowlists
+// allow every field.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryLimits {
+  int INHERIT = Integer.MIN_VALUE;
+
+  // 0 is no limit too, here and for the other sizes and the timeout
+  int maxPageSize() default INHERIT;
+
+  int maxFilters() default INHERIT;
+
+  int maxInValues() default INHERIT;
+
+  // contains / endswith and their negations, which cannot use an index;
+  // 0 forbids them
+  int maxWildcardFilters() default INHERIT;
+
+  String[] filterable() default {};
+
+  String[] sortable() default {};
+
+  int timeoutMs() default INHERIT;
+
+  // items of one /batch request
+  int maxBatchSize() default INHERIT;
+}
@@ -0,0 +1,16 @@
+package com.example.base_pulse.entities.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Turns on the findById/exists cache of BaseServiceImpl. Goes on the entity
+// or on the service subclass; the service wins when both carry it.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadThroughCache {
+    int maxSize() default 10_000;
+
+    long ttlSeconds() default 300;
+}
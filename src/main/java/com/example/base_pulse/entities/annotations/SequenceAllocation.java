@@ -0,0 +1,17 @@
+package com.example.base_pulse.entities.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Per-entity override for PooledBaseEntity ids.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SequenceAllocation {
+  // ids reserved per sequence call; 0 keeps the configured default
+  int size() default 0;
+
+  // "pooled" or "pooled-lo"; empty keeps the configured default
+  String optimizer() default "";
+}
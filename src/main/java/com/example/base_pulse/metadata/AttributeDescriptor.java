@@ -0,0 +1,87 @@
+package com.example.base_pulse.metadata;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.InvalidQueryException;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import lombok.Getter;
+
+@Getter
+public class AttributeDescriptor {
+  private final String path;
+  private final String[] parts;
+  private final Class<?> javaType;
+  private final Set<CrudOperator> operators;
+  private final boolean optional;
+  // joins[i] is set when parts[i] crosses a to-one association
+  private final boolean[] joins;
+  // index of the part that crosses a to-many association, or -1
+  private final int toMany;
+  // path of that collection (orders for orders.status), or null
+  private final String collection;
+
+  public AttributeDescriptor(String path, String[] parts, Class<?> javaType, Set<CrudOperator> operators,
+      boolean optional) {
+    this(path, parts, javaType, operators, optional, new boolean[parts.length], -1);
+  }
+
+  public AttributeDescriptor(String path, String[] parts, Class<?> javaType, Set<CrudOperator> operators,
+      boolean optional, boolean[] joins, int toMany) {
+    this.path = path;
+    this.parts = parts;
+    this.javaType = javaType;
+    this.operators = operators;
+    this.optional = optional;
+    this.joins = joins;
+    this.toMany = toMany;
+    this.collection = toMany < 0 ? null : String.join(".", Arrays.copyOf(parts, toMany + 1));
+  }
+
+  public boolean allows(CrudOperator operator) {
+    return operators.contains(operator);
+  }
+
+  public boolean isToMany() {
+    return toMany >= 0;
+  }
+
+  // Associations become explicit LEFT JOINs, one per association path and
+  // query: a projection, a filter and a sort on address.* all share the
+  // same join of address.
+  public Path<?> resolve(From<?, ?> root) {
+    if (isToMany())
+      throw new InvalidQueryException(
+          "Field '" + path + "' is on a to-many association and can only be used in filters");
+    return walk(root);
+  }
+
+  // From the root of the correlated EXISTS subquery for the collection; the
+  // collection itself is an inner join there, shared by every filter on it.
+  public Path<?> resolveElement(From<?, ?> correlated) {
+    return walk(correlated);
+  }
+
+  private Path<?> walk(From<?, ?> root) {
+    Path<?> p = root;
+    for (int i = 0; i < parts.length; i++) {
+      if (i == toMany && p instanceof From<?, ?> from)
+        p = join(from, parts[i], JoinType.INNER);
+      else
+        p = joins[i] && p instanceof From<?, ?> from ? join(from, parts[i], JoinType.LEFT) : p.get(parts[i]);
+    }
+    return p;
+  }
+
+  private static From<?, ?> join(From<?, ?> from, String attribute, JoinType type) {
+    for (Join<?, ?> join : from.getJoins())
+      if (join.getJoinType() == type && join.getAttribute().getName().equals(attribute))
+        return join;
+    return from.join(attribute, type);
+  }
+}
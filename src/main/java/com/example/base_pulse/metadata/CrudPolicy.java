@@ -0,0 +1,66 @@
+package com.example.base_pulse.metadata;
+
+import com.example.base_pulse.controllers.annotations.DisableCrud;
+
+import lombok.Getter;
+
+@Getter
+public class CrudPolicy {
+
+  public static final CrudPolicy ALL = new CrudPolicy(true, true, true, true);
+
+  private final boolean create;
+  private final boolean read;
+  private final boolean update;
+  private final boolean delete;
+  private final String allowHeader;
+
+  public CrudPolicy(boolean create, boolean read, boolean update, boolean delete) {
+    this.create = create;
+    this.read = read;
+    this.update = update;
+    this.delete = delete;
+    this.allowHeader = buildAllowHeader();
+  }
+
+  public static CrudPolicy of(Class<?> controllerClass) {
+    DisableCrud annotation = controllerClass.getAnnotation(DisableCrud.class);
+    if (annotation == null)
+      return ALL;
+
+    return new CrudPolicy(
+        !annotation.create(),
+        !annotation.read(),
+        !annotation.update(),
+        !annotation.delete());
+  }
+
+  public boolean isEnabled(String action) {
+    return switch (action) {
+      case "create" -> create;
+      case "read" -> read;
+      case "update" -> update;
+      case "delete" -> delete;
+      default -> true;
+    };
+  }
+
+  private String buildAllowHeader() {
+    StringBuilder allow = new StringBuilder();
+
+    if (read)
+      allow.append("GET, ");
+    if (create)
+      allow.append("POST, ");
+    if (update)
+      allow.append("PUT, PATCH, ");
+    if (delete)
+      allow.append("DELETE, ");
+
+    if (allow.length() > 2) {
+      allow.setLength(allow.length() - 2);
+    }
+
+    return allow.toString();
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.base_pulse.metadata;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.example.base_pulse.entities.annotations.CachedQueries;
+import com.example.base_pulse.entities.annotations.PageCount;
+import com.example.base_pulse.specifications.FilterPlan;
+import com.example.base_pulse.specifications.FilterPlanCompiler;
+import com.example.base_pulse.specifications.InvalidQueryException;
+import com.example.base_pulse.specifications.PreparedQuery;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.utils.LruCache;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+public class EntityDescriptor {
+  private final String name;
+  private final Class<?> javaType;
+  private final Map<String, AttributeDescriptor> attributes;
+  private final PageCount pageCount;
+  private final CachedQueries cachedQueries;
+
+  // entity types reachable through the to-one paths in attributes
+  private final Set<Class<?>> related;
+
+  @Getter(AccessLevel.NONE)
+  private final LruCache<FilterPlan.Shape, FilterPlan> plans;
+
+  // criteria trees per query shape; Hibernate keys its plan cache on the tree instance
+  @Getter(AccessLevel.NONE)
+  private final LruCache<Object, PreparedQuery<?>> queries;
+
+  // filled in from the entity's BaseController once all beans exist
+  @Setter
+  private volatile CrudPolicy crud = CrudPolicy.ALL;
+
+  // @QueryLimits over the base-pulse.limits.* defaults, set by the registry
+  @Setter
+  private volatile QueryPolicy queryPolicy = QueryPolicy.DEFAULT;
+
+  public EntityDescriptor(String name, Class<?> javaType, Map<String, AttributeDescriptor> attributes,
+      int planCacheSize) {
+    this(name, javaType, attributes, Set.of(), planCacheSize);
+  }
+
+  public EntityDescriptor(String name, Class<?> javaType, Map<String, AttributeDescriptor> attributes,
+      Set<Class<?>> related, int planCacheSize) {
+    this.name = name;
+    this.javaType = javaType;
+    this.attributes = attributes;
+    this.related = related;
+    this.pageCount = javaType.getAnnotation(PageCount.class);
+    this.cachedQueries = javaType.getAnnotation(CachedQueries.class);
+    this.plans = new LruCache<>(planCacheSize);
+    this.queries = new LruCache<>(planCacheSize);
+  }
+
+  public AttributeDescriptor attribute(String path) {
+    AttributeDescriptor attribute = attributes.get(path);
+    if (attribute == null)
+      throw new InvalidQueryException("Unknown field '" + path + "' on entity " + name);
+    return attribute;
+  }
+
+  public FilterPlan plan(SearchCriteria sc) {
+    FilterPlan.Shape key = new FilterPlan.Shape(sc.getField(), sc.getOperator(), FilterPlanCompiler.arity(sc));
+    return plans.computeIfAbsent(key, k -> {
+      AttributeDescriptor attribute = attribute(k.field());
+      if (!attribute.allows(k.operator()))
+        throw new InvalidQueryException(
+            "Operator " + k.operator() + " is not supported on field '" + k.field() + "'");
+      return FilterPlanCompiler.compile(attribute, k.operator(), k.arity());
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  public <R> PreparedQuery<R> prepared(Object shape, Supplier<PreparedQuery<R>> builder) {
+    return (PreparedQuery<R>) queries.computeIfAbsent(shape, k -> builder.get());
+  }
+}
@@ -0,0 +1,190 @@
+package com.example.base_pulse.metadata;
+
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.example.base_pulse.controllers.BaseController;
+import com.example.base_pulse.entities.annotations.QueryLimits;
+import com.example.base_pulse.specifications.CrudOperator;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+
+@Component
+public class EntityMetadataRegistry implements SmartInitializingSingleton {
+
+  // association hops followed when pre-resolving dotted paths (address.city is one)
+  private static final int MAX_DEPTH = 3;
+
+  public static final int DEFAULT_PLAN_CACHE_SIZE = 256;
+
+  private static final Set<CrudOperator> TEXT_OPERATORS = Collections.unmodifiableSet(EnumSet.of(
+      CrudOperator.EQ, CrudOperator.NE, CrudOperator.IN, CrudOperator.NIN,
+      CrudOperator.CONTAINS, CrudOperator.NOT_CONTAINS,
+      CrudOperator.STARTSWITH, CrudOperator.NOT_STARTSWITH,
+      CrudOperator.ENDSWITH, CrudOperator.NOT_ENDSWITH,
+      CrudOperator.BETWEEN));
+
+  private static final Set<CrudOperator> NUMERIC_OPERATORS = Collections.unmodifiableSet(EnumSet.of(
+      CrudOperator.EQ, CrudOperator.NE, CrudOperator.IN, CrudOperator.NIN,
+      CrudOperator.LT, CrudOperator.GT, CrudOperator.LTE, CrudOperator.GTE,
+      CrudOperator.BETWEEN));
+
+  private static final Set<CrudOperator> TEMPORAL_OPERATORS = NUMERIC_OPERATORS;
+
+  private static final Set<CrudOperator> EQUALITY_OPERATORS = Collections.unmodifiableSet(EnumSet.of(
+      CrudOperator.EQ, CrudOperator.NE, CrudOperator.IN, CrudOperator.NIN));
+
+  private final ApplicationContext context;
+  private final Map<String, EntityDescriptor> byName = new HashMap<>();
+  private final Map<Class<?>, EntityDescriptor> byType = new HashMap<>();
+
+  public EntityMetadataRegistry(
+      EntityManagerFactory emf,
+      ApplicationContext context,
+      Environment environment,
+      @Value("${base-pulse.query.plan-cache-size:" + DEFAULT_PLAN_CACHE_SIZE + "}") int planCacheSize) {
+    this.context = context;
+    QueryPolicy limits = QueryPolicy.defaults(environment);
+
+    for (EntityType<?> type : emf.getMetamodel().getEntities()) {
+      EntityDescriptor descriptor = describe(type, planCacheSize);
+      descriptor.setQueryPolicy(QueryPolicy.of(type.getJavaType().getAnnotation(QueryLimits.class), limits));
+      byName.put(type.getName(), descriptor);
+      byName.putIfAbsent(type.getJavaType().getSimpleName(), descriptor);
+      byType.put(type.getJavaType(), descriptor);
+    }
+  }
+
+  public EntityDescriptor get(String name) {
+    EntityDescriptor descriptor = byName.get(name);
+    if (descriptor == null)
+      throw new IllegalArgumentException("Entity not found: " + name);
+    return descriptor;
+  }
+
+  public EntityDescriptor get(Class<?> type) {
+    EntityDescriptor descriptor = byType.get(type);
+    if (descriptor == null)
+      throw new IllegalArgumentException("Entity not found: " + type.getName());
+    return descriptor;
+  }
+
+  @Override
+  @SuppressWarnings("rawtypes")
+  public void afterSingletonsInstantiated() {
+    for (BaseController controller : context.getBeansOfType(BaseController.class).values()) {
+      Class<?> entity = ResolvableType.forClass(BaseController.class, controller.getClass()).resolveGeneric(0);
+      EntityDescriptor descriptor = entity != null ? byType.get(entity) : null;
+      if (descriptor != null)
+        descriptor.setCrud(controller.getCrudPolicy());
+    }
+  }
+
+  public static EntityDescriptor describe(EntityType<?> type) {
+    return describe(type, DEFAULT_PLAN_CACHE_SIZE);
+  }
+
+  public static EntityDescriptor describe(EntityType<?> type, int planCacheSize) {
+    Map<String, AttributeDescriptor> attributes = new LinkedHashMap<>();
+    Set<Class<?>> related = new HashSet<>();
+    collect(type, "", new boolean[0], -1, false, 0, attributes, related);
+    related.remove(type.getJavaType());
+    return new EntityDescriptor(type.getName(), type.getJavaType(), Collections.unmodifiableMap(attributes),
+        Set.copyOf(related), planCacheSize);
+  }
+
+  // joins marks the association hops in prefix and toMany the one that
+  // enters a collection (-1 outside one). A value behind an optional hop can
+  // be null through the LEFT JOIN even if its own column is not.
+  private static void collect(ManagedType<?> type, String prefix, boolean[] joins, int toMany, boolean viaOptional,
+      int depth, Map<String, AttributeDescriptor> out, Set<Class<?>> related) {
+    for (SingularAttribute<?, ?> attr : type.getSingularAttributes()) {
+      String path = prefix + attr.getName();
+
+      switch (attr.getPersistentAttributeType()) {
+        case BASIC -> out.put(path, new AttributeDescriptor(
+            path,
+            path.split("\\."),
+            attr.getJavaType(),
+            operatorsFor(attr.getJavaType()),
+            viaOptional || (attr.isOptional() && !attr.isId()),
+            Arrays.copyOf(joins, joins.length + 1),
+            toMany));
+
+        case EMBEDDED -> collect((ManagedType<?>) attr.getType(), path + ".", Arrays.copyOf(joins, joins.length + 1),
+            toMany, viaOptional, depth, out, related);
+
+        case MANY_TO_ONE, ONE_TO_ONE -> {
+          if (depth < MAX_DEPTH) {
+            related.add(attr.getJavaType());
+            boolean[] hops = Arrays.copyOf(joins, joins.length + 1);
+            hops[joins.length] = true;
+            collect((ManagedType<?>) attr.getType(), path + ".", hops, toMany, viaOptional || attr.isOptional(),
+                depth + 1, out, related);
+          }
+        }
+
+        default -> {
+        }
+      }
+    }
+
+    // one collection per path: orders.status, but not orders.lines.sku
+    if (toMany >= 0 || depth >= MAX_DEPTH)
+      return;
+
+    for (PluralAttribute<?, ?, ?> attr : type.getPluralAttributes()) {
+      if (attr.getCollectionType() == PluralAttribute.CollectionType.MAP)
+        continue;
+
+      String path = prefix + attr.getName();
+      boolean[] hops = Arrays.copyOf(joins, joins.length + 1);
+      Class<?> element = attr.getElementType().getJavaType();
+
+      if (attr.getElementType().getPersistenceType() == Type.PersistenceType.BASIC) {
+        // @ElementCollection of values: the element itself is filtered
+        out.put(path, new AttributeDescriptor(path, path.split("\\."), element, operatorsFor(element), false, hops,
+            joins.length));
+      } else {
+        if (attr.getElementType().getPersistenceType() == Type.PersistenceType.ENTITY)
+          related.add(element);
+        collect((ManagedType<?>) attr.getElementType(), path + ".", hops, joins.length, false, depth + 1, out,
+            related);
+      }
+    }
+  }
+
+  private static Set<CrudOperator> operatorsFor(Class<?> type) {
+    if (type == String.class || type == Character.class || type == char.class)
+      return TEXT_OPERATORS;
+
+    if (Number.class.isAssignableFrom(type)
+        || (type.isPrimitive() && type != boolean.class))
+      return NUMERIC_OPERATORS;
+
+    if (Temporal.class.isAssignableFrom(type) || Date.class.isAssignableFrom(type))
+      return TEMPORAL_OPERATORS;
+
+    return EQUALITY_OPERATORS;
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.base_pulse.metadata;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class QueryLimitException extends IllegalArgumentException {
+
+  public QueryLimitException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.base_pulse.metadata;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Pageable;
+
+import com.example.base_pulse.entities.annotations.QueryLimits;
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+
+import lombok.Getter;
+
+// What a single read may ask for, checked before any SQL is built. A
+// negative limit is no limit. A size or timeout of 0 is no limit either;
+// for wildcard filters 0 forbids them.
+@Getter
+public class QueryPolicy {
+
+  public static final int UNLIMITED = -1;
+
+  public static final QueryPolicy DEFAULT = new QueryPolicy(1000, 20, 1000, 3, Set.of(), Set.of(), 30_000, 1000);
+
+  private static final Set<CrudOperator> WILDCARD_OPERATORS = Set.of(
+      CrudOperator.CONTAINS, CrudOperator.NOT_CONTAINS,
+      CrudOperator.ENDSWITH, CrudOperator.NOT_ENDSWITH);
+
+  private final int maxPageSize;
+  private final int maxFilters;
+  private final int maxInValues;
+  private final int maxWildcardFilters;
+  private final Set<String> filterable;
+  private final Set<String> sortable;
+  private final int timeoutMs;
+  private final int maxBatchSize;
+
+  public QueryPolicy(int maxPageSize, int maxFilters, int maxInValues, int maxWildcardFilters,
+      Set<String> filterable, Set<String> sortable, int timeoutMs, int maxBatchSize) {
+    this.maxPageSize = maxPageSize;
+    this.maxFilters = maxFilters;
+    this.maxInValues = maxInValues;
+    this.maxWildcardFilters = maxWildcardFilters;
+    this.filterable = filterable;
+    this.sortable = sortable;
+    this.timeoutMs = timeoutMs;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  public static QueryPolicy defaults(Environment env) {
+    return new QueryPolicy(
+        env.getProperty("base-pulse.limits.max-page-size", Integer.class, DEFAULT.maxPageSize),
+        env.getProperty("base-pulse.limits.max-filters", Integer.class, DEFAULT.maxFilters),
+        env.getProperty("base-pulse.limits.max-in-values", Integer.class, DEFAULT.maxInValues),
+        env.getProperty("base-pulse.limits.max-wildcard-filters", Integer.class, DEFAULT.maxWildcardFilters),
+        Set.of(),
+        Set.of(),
+        env.getProperty("base-pulse.limits.timeout-ms", Integer.class, DEFAULT.timeoutMs),
+        env.getProperty("base-pulse.limits.max-batch-size", Integer.class, DEFAULT.maxBatchSize));
+  }
+
+  public static QueryPolicy of(QueryLimits limits, QueryPolicy defaults) {
+    if (limits == null)
+      return defaults;
+
+    return new QueryPolicy(
+        pick(limits.maxPageSize(), defaults.maxPageSize),
+        pick(limits.maxFilters(), defaults.maxFilters),
+        pick(limits.maxInValues(), defaults.maxInValues),
+        pick(limits.maxWildcardFilters(), defaults.maxWildcardFilters),
+        Set.of(limits.filterable()),
+        Set.of(limits.sortable()),
+        pick(limits.timeoutMs(), defaults.timeoutMs),
+        pick(limits.maxBatchSize(), defaults.maxBatchSize));
+  }
+
+  public void check(List<SearchCriteria> filters, List<SortCriteria> sort, Pageable pageable) {
+    if (pageable != null && pageable.isPaged() && maxPageSize > 0 && pageable.getPageSize() > maxPageSize)
+      throw new QueryLimitException(
+          "Page size " + pageable.getPageSize() + " is over the limit of " + maxPageSize);
+
+    check(filters);
+
+    if (sort != null && !sortable.isEmpty()) {
+      for (SortCriteria s : sort) {
+        if (!sortable.contains(s.getField()))
+          throw new QueryLimitException("Sorting on '" + s.getField() + "' is not allowed");
+      }
+    }
+  }
+
+  public void check(List<SearchCriteria> filters) {
+    if (filters == null)
+      return;
+
+    if (maxFilters > 0 && filters.size() > maxFilters)
+      throw new QueryLimitException(filters.size() + " filters are over the limit of " + maxFilters);
+
+    int wildcards = 0;
+    for (SearchCriteria sc : filters) {
+      if (!filterable.isEmpty() && !filterable.contains(sc.getField()))
+        throw new QueryLimitException("Filtering on '" + sc.getField() + "' is not allowed");
+
+      if (WILDCARD_OPERATORS.contains(sc.getOperator()))
+        wildcards++;
+
+      if (maxInValues > 0 && sc.getValue() instanceof Collection<?> values && values.size() > maxInValues)
+        throw new QueryLimitException(
+            values.size() + " values for '" + sc.getField() + "' are over the limit of " + maxInValues);
+    }
+
+    if (maxWildcardFilters >= 0 && wildcards > maxWildcardFilters)
+      throw new QueryLimitException(
+          wildcards + " contains/endswith filters are over the limit of " + maxWildcardFilters);
+  }
+
+  // items of one POST, PATCH or DELETE /batch request
+  public void checkBatch(int size) {
+    if (maxBatchSize > 0 && size > maxBatchSize)
+      throw new QueryLimitException("A batch of " + size + " items is over the limit of " + maxBatchSize);
+  }
+
+  private static int pick(int value, int fallback) {
+    return value == QueryLimits.INHERIT ? fallback : value;
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.base_pulse.metrics;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.base_pulse.bulkhead.Bulkhead;
+import com.example.base_pulse.bulkhead.EntityBulkheads;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("${base-pulse.metrics.path:/metrics}")
+@ConditionalOnProperty(name = "base-pulse.bulkhead.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class BulkheadController {
+
+    private final EntityBulkheads bulkheads;
+
+    @GetMapping("/bulkheads")
+    public Map<String, Bulkhead.Stats> bulkheads() {
+        return bulkheads.stats();
+    }
+}
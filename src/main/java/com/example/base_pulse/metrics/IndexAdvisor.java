@@ -0,0 +1,379 @@
+package com.example.base_pulse.metrics;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.BackgroundTasks;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Counts which filters and sorts actually run, and what they cost, and turns
+// that into index recommendations. Only equality (eq, in) and range (lt, gt,
+// lte, gte, between) filters on columns of the entity's own table can use a
+// plain index; the string operators compare lower(column) and are listed in
+// the usage but never recommended.
+//
+// Each query suggests one index in equality, sort, range order, plus one per
+// indexable filter on its own. The saved time is a rough share of the query
+// time and is only meant for ranking.
+@Slf4j
+@Component
+public class IndexAdvisor {
+
+    // usage tables stop taking new keys past this size
+    private static final int MAX_KEYS = 1024;
+
+    public record FilterUsage(String entity, String field, String operator, boolean indexable, long count,
+            double totalMs) {
+    }
+
+    public record SortUsage(String entity, List<String> sort, long count, double totalMs) {
+    }
+
+    public record Recommendation(String entity, String table, List<String> columns, long count, double totalMs,
+            double estimatedSavedMs, String ddl) {
+    }
+
+    public record Report(List<Recommendation> recommendations, List<FilterUsage> filters, List<SortUsage> sorts) {
+    }
+
+    private record FilterKey(String entity, String field, CrudOperator operator) {
+    }
+
+    private record SortKey(String entity, List<String> sort) {
+    }
+
+    // fields in index order, descending sort keys as "field desc"
+    private record IndexKey(String entity, List<String> fields) {
+    }
+
+    private record Index(String table, List<String> columns) {
+    }
+
+    private static final class Usage {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder savedNanos = new LongAdder();
+
+        private void add(long elapsed, double share) {
+            count.increment();
+            nanos.add(elapsed);
+            savedNanos.add((long) (elapsed * share));
+        }
+    }
+
+    private final EntityMetadataRegistry registry;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final long minCount;
+    // DDL runs off the query thread, so it waits for locks instead of holding the caller up
+    private final BackgroundTasks applier;
+
+    private final ConcurrentHashMap<FilterKey, Usage> filters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<SortKey, Usage> sorts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<IndexKey, Usage> candidates = new ConcurrentHashMap<>();
+    private final Set<IndexKey> applied = ConcurrentHashMap.newKeySet();
+
+    public IndexAdvisor(
+            EntityMetadataRegistry registry,
+            EntityManagerFactory entityManagerFactory,
+            DataSource dataSource,
+            BackgroundTasks tasks,
+            @Value("${base-pulse.index-advisor.enabled:false}") boolean enabled,
+            @Value("${base-pulse.index-advisor.min-count:20}") long minCount,
+            @Value("${base-pulse.index-advisor.auto-apply:false}") boolean autoApply) {
+        this.registry = registry;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.minCount = minCount;
+        this.applier = enabled && autoApply ? tasks : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void observe(String entity, List<SearchCriteria> filterList, List<SortCriteria> sortList, long elapsed) {
+        if (!enabled) {
+            return;
+        }
+
+        TreeSet<String> equality = new TreeSet<>();
+        String range = null;
+
+        if (filterList != null) {
+            for (SearchCriteria sc : filterList) {
+                if (sc.getField() == null || sc.getOperator() == null) {
+                    continue;
+                }
+                record(filters, new FilterKey(entity, sc.getField(), sc.getOperator()), elapsed, 0);
+
+                double share = share(sc.getOperator());
+                if (share > 0 && !sc.getField().contains(".")) {
+                    record(candidates, new IndexKey(entity, List.of(sc.getField())), elapsed, share);
+                    if (sc.getOperator() == CrudOperator.EQ || sc.getOperator() == CrudOperator.IN) {
+                        equality.add(sc.getField());
+                    } else if (range == null) {
+                        range = sc.getField();
+                    }
+                }
+            }
+        }
+
+        List<String> order = new ArrayList<>();
+        boolean sortable = true;
+        if (sortList != null) {
+            for (SortCriteria s : sortList) {
+                if (s.getField() == null) {
+                    continue;
+                }
+                boolean desc = s.getDirection() != null && s.getDirection().isDescending();
+                order.add(s.getField() + (desc ? " desc" : ""));
+                sortable &= !s.getField().contains(".");
+            }
+        }
+        if (!order.isEmpty()) {
+            record(sorts, new SortKey(entity, List.copyOf(order)), elapsed, 0);
+        }
+
+        // equality, then sort, then range
+        List<String> composite = new ArrayList<>(equality);
+        if (sortable) {
+            for (String key : order) {
+                String field = key.endsWith(" desc") ? key.substring(0, key.length() - 5) : key;
+                if (!equality.contains(field)) {
+                    composite.add(key);
+                }
+            }
+        }
+        if (range != null && !equality.contains(range) && !order.contains(range)
+                && !order.contains(range + " desc")) {
+            composite.add(range);
+        }
+
+        if (composite.isEmpty()) {
+            return;
+        }
+
+        double share = !equality.isEmpty() ? 0.9 : range != null ? 0.7 : 0.5;
+        IndexKey key = new IndexKey(entity, List.copyOf(composite));
+        // a lone filter has been counted above already
+        Usage usage = composite.size() == 1 && order.isEmpty()
+                ? candidates.get(key)
+                : record(candidates, key, elapsed, share);
+
+        if (applier != null && usage != null && usage.count.sum() >= minCount && applied.add(key)) {
+            try {
+                applier.execute(() -> apply(key));
+            } catch (TaskRejectedException e) {
+                // queue full: the next matching query tries again
+                applied.remove(key);
+            }
+        }
+    }
+
+    public Report report() {
+        List<Recommendation> recommendations = new ArrayList<>();
+        Map<String, List<List<String>>> existing = new HashMap<>();
+
+        candidates.forEach((key, usage) -> {
+            long count = usage.count.sum();
+            if (count < minCount) {
+                return;
+            }
+            Index index = resolve(key);
+            if (index == null || covered(index, existing)) {
+                return;
+            }
+            recommendations.add(new Recommendation(key.entity(), index.table(), index.columns(), count,
+                    millis(usage.nanos.sum()), millis(usage.savedNanos.sum()), ddl(index)));
+        });
+        recommendations.sort(Comparator.comparingDouble(Recommendation::estimatedSavedMs).reversed());
+
+        List<FilterUsage> filterUsage = new ArrayList<>();
+        filters.forEach((key, usage) -> filterUsage.add(new FilterUsage(key.entity(), key.field(),
+                key.operator().name().toLowerCase(), share(key.operator()) > 0 && !key.field().contains("."),
+                usage.count.sum(), millis(usage.nanos.sum()))));
+        filterUsage.sort(Comparator.comparingDouble(FilterUsage::totalMs).reversed());
+
+        List<SortUsage> sortUsage = new ArrayList<>();
+        sorts.forEach((key, usage) -> sortUsage.add(new SortUsage(key.entity(), key.sort(), usage.count.sum(),
+                millis(usage.nanos.sum()))));
+        sortUsage.sort(Comparator.comparingDouble(SortUsage::totalMs).reversed());
+
+        return new Report(recommendations, filterUsage, sortUsage);
+    }
+
+    public void reset() {
+        filters.clear();
+        sorts.clear();
+        candidates.clear();
+        applied.clear();
+    }
+
+    // only on H2: a test database is the one place where creating indexes
+    // behind the schema's back is harmless
+    private void apply(IndexKey key) {
+        if (!(dialect() instanceof H2Dialect)) {
+            log.warn("index auto-apply is only supported on H2, skipping {}", key);
+            return;
+        }
+        Index index = resolve(key);
+        if (index == null || covered(index, new HashMap<>())) {
+            return;
+        }
+        String ddl = ddl(index);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(ddl);
+            log.info("applied advised index: {}", ddl);
+        } catch (SQLException e) {
+            log.warn("could not apply advised index: {}", ddl, e);
+        }
+    }
+
+    private Index resolve(IndexKey key) {
+        EntityDescriptor descriptor;
+        try {
+            descriptor = registry.get(key.entity());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (!(sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(descriptor.getJavaType()) instanceof AbstractEntityPersister persister)) {
+            return null;
+        }
+
+        String table = null;
+        List<String> columns = new ArrayList<>();
+        for (String field : key.fields()) {
+            boolean desc = field.endsWith(" desc");
+            String name = desc ? field.substring(0, field.length() - 5) : field;
+            try {
+                String[] names = persister.getPropertyColumnNames(name);
+                String owner = persister.getPropertyTableName(name);
+                // a multi-column or inherited property cannot go into one index with the rest
+                if (names == null || names.length != 1 || (table != null && !table.equals(owner))) {
+                    return null;
+                }
+                table = owner;
+                columns.add(names[0] + (desc ? " desc" : ""));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+        return table == null ? null : new Index(table, List.copyOf(columns));
+    }
+
+    // an existing index whose leading columns are these already does the job
+    private boolean covered(Index index, Map<String, List<List<String>>> existing) {
+        List<List<String>> indexes = existing.computeIfAbsent(index.table(), this::indexes);
+        List<String> wanted = index.columns().stream()
+                .map(c -> c.endsWith(" desc") ? c.substring(0, c.length() - 5) : c)
+                .map(c -> c.toLowerCase(Locale.ROOT))
+                .toList();
+        return indexes.stream().anyMatch(columns -> columns.size() >= wanted.size()
+                && columns.subList(0, wanted.size()).equals(wanted));
+    }
+
+    private List<List<String>> indexes(String table) {
+        Map<String, TreeMap<Short, String>> byName = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData meta = connection.getMetaData();
+            String name = meta.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT)
+                    : meta.storesLowerCaseIdentifiers() ? table.toLowerCase(Locale.ROOT) : table;
+            try (ResultSet rs = meta.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false,
+                    true)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index != null && column != null) {
+                        byName.computeIfAbsent(index, k -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("could not read indexes of {}", table, e);
+        }
+        return byName.values().stream().map(columns -> List.copyOf(columns.values())).toList();
+    }
+
+    private String ddl(Index index) {
+        Dialect dialect = dialect();
+        String name = "ix_" + index.table() + "_" + String.join("_", index.columns().stream()
+                .map(c -> c.endsWith(" desc") ? c.substring(0, c.length() - 5) : c)
+                .toList());
+        name = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+        int max = dialect.getMaxIdentifierLength();
+        if (name.length() > max) {
+            String hash = Integer.toHexString(name.hashCode());
+            name = name.substring(0, max - hash.length() - 1) + "_" + hash;
+        }
+        return dialect.getCreateIndexString(false) + " " + name + " on " + index.table()
+                + " (" + String.join(", ", index.columns()) + ")" + dialect.getCreateIndexTail(false, List.of());
+    }
+
+    private Dialect dialect() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    // rough share of the query time an index on this operator saves
+    private static double share(CrudOperator operator) {
+        return switch (operator) {
+            case EQ, IN -> 0.9;
+            case LT, GT, LTE, GTE, BETWEEN -> 0.7;
+            default -> 0;
+        };
+    }
+
+    private static <K> Usage record(ConcurrentHashMap<K, Usage> table, K key, long elapsed, double share) {
+        Usage usage = table.get(key);
+        if (usage == null && table.size() < MAX_KEYS) {
+            usage = table.computeIfAbsent(key, k -> new Usage());
+        }
+        if (usage != null) {
+            usage.add(elapsed, share);
+        }
+        return usage;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.base_pulse.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("${base-pulse.metrics.path:/metrics}")
+@ConditionalOnProperty(name = "base-pulse.index-advisor.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class IndexAdvisorController {
+
+    private final IndexAdvisor advisor;
+
+    @GetMapping("/indexes")
+    public IndexAdvisor.Report indexes() {
+        return advisor.report();
+    }
+
+    @DeleteMapping("/indexes")
+    public ResponseEntity<Void> reset() {
+        advisor.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
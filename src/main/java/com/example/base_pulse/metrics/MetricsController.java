@@ -0,0 +1,32 @@
+package com.example.base_pulse.metrics;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("${base-pulse.metrics.path:/metrics}")
+@ConditionalOnProperty(name = "base-pulse.timing.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final RequestMetrics metrics;
+
+    @GetMapping("/requests")
+    public List<RequestMetrics.OperationStats> requests() {
+        return metrics.snapshot();
+    }
+
+    @DeleteMapping("/requests")
+    public ResponseEntity<Void> reset() {
+        metrics.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.base_pulse.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+// Aggregates timed requests per entity and operation (the handler method).
+@Component
+public class RequestMetrics {
+
+    public record OperationStats(
+            String entity,
+            String operation,
+            long errors,
+            double statementsPerRequest,
+            double rowsPerRequest,
+            Histogram.Snapshot total,
+            Map<String, Histogram.Snapshot> phases) {
+    }
+
+    private record Key(String entity, String operation) {
+    }
+
+    private static final class Series {
+        private final Histogram total = new Histogram();
+        private final Map<String, Histogram> phases = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+    }
+
+    private final ConcurrentHashMap<Key, Series> series = new ConcurrentHashMap<>();
+
+    public void record(RequestTimings timings, long totalNanos, boolean failed) {
+        if (timings.entity() == null || timings.operation() == null) {
+            return;
+        }
+
+        Series s = series.computeIfAbsent(new Key(timings.entity(), timings.operation()), k -> new Series());
+        s.total.recordNanos(totalNanos);
+        timings.phases().forEach((name, nanos) -> s.phases.computeIfAbsent(name, k -> new Histogram())
+                .recordNanos(nanos));
+        s.statements.add(timings.statements());
+        s.rows.add(timings.rows());
+        if (failed) {
+            s.errors.increment();
+        }
+    }
+
+    public List<OperationStats> snapshot() {
+        List<OperationStats> stats = new ArrayList<>();
+        series.forEach((key, s) -> {
+            Histogram.Snapshot total = s.total.snapshot();
+            Map<String, Histogram.Snapshot> phases = new LinkedHashMap<>();
+            for (String name : RequestTimings.ORDER) {
+                Histogram h = s.phases.get(name);
+                if (h != null) {
+                    phases.put(name, h.snapshot());
+                }
+            }
+            s.phases.forEach((name, h) -> phases.putIfAbsent(name, h.snapshot()));
+            double requests = Math.max(total.count(), 1);
+            stats.add(new OperationStats(key.entity(), key.operation(), s.errors.sum(),
+                    s.statements.sum() / requests, s.rows.sum() / requests, total, phases));
+        });
+        stats.sort(Comparator.comparing(OperationStats::entity).thenComparing(OperationStats::operation));
+        return stats;
+    }
+
+    public void reset() {
+        series.clear();
+    }
+}
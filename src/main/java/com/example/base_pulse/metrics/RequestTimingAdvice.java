@@ -0,0 +1,43 @@
+package com.example.base_pulse.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Marks the point where the handler is done and the body starts being
+// written, and sends the phases so far as Server-Timing while headers can
+// still be set. Serialization itself only shows up in /metrics/requests.
+@ControllerAdvice
+@ConditionalOnProperty(name = "base-pulse.timing.enabled", havingValue = "true")
+public class RequestTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    // statement and row counts tell a client about the schema; off unless asked for
+    private final boolean counts;
+
+    public RequestTimingAdvice(@Value("${base-pulse.timing.header-counts:false}") boolean counts) {
+        this.counts = counts;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.handled();
+            response.getHeaders().set(RequestTimingFilter.HEADER, timings.header(timings.elapsed(), counts));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.base_pulse.metrics;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Times the request and records it in RequestMetrics once the response is
+// complete. The body is passed through as it is written; the Server-Timing
+// header is set by RequestTimingAdvice, just before the body starts.
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private final RequestMetrics metrics;
+
+    public RequestTimingFilter(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            long total = timings.finish();
+            RequestTimings.clear();
+            metrics.record(timings, total, failed);
+        }
+    }
+}
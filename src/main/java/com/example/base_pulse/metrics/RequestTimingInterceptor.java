@@ -0,0 +1,65 @@
+package com.example.base_pulse.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.base_pulse.controllers.BaseController;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Names the timed request after its entity and handler method. Requests that
+// do not resolve to a known entity are timed but not aggregated, so arbitrary
+// path values cannot grow the metrics.
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    private final EntityMetadataRegistry registry;
+    private final Map<Class<?>, String> controllerEntities = new ConcurrentHashMap<>();
+
+    public RequestTimingInterceptor(EntityMetadataRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+
+        String entity = method.getBean() instanceof BaseController<?> controller
+                ? controllerEntities.computeIfAbsent(controller.getClass(), RequestTimingInterceptor::entityOf)
+                : pathEntity(request);
+
+        if (entity != null && !entity.isEmpty()) {
+            timings.tag(entity, method.getMethod().getName());
+        }
+        return true;
+    }
+
+    private String pathEntity(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String name = variables == null ? null : variables.get("entity");
+        if (name == null) {
+            return null;
+        }
+        try {
+            return registry.get(name).getName();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String entityOf(Class<?> controller) {
+        Class<?> entity = ResolvableType.forClass(BaseController.class, controller).resolveGeneric(0);
+        return entity == null ? "" : entity.getSimpleName();
+    }
+}
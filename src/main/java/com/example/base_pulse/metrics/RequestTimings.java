@@ -0,0 +1,201 @@
+package com.example.base_pulse.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Phase times and counters of the request running on this thread. Every
+// static entry point is a no-op when no request is being timed, so the
+// repository and service code can call them unconditionally.
+public final class RequestTimings {
+
+    public static final String PARSE = "parse";
+    public static final String QUEUE = "queue";
+    public static final String PLAN = "plan";
+    public static final String QUERY = "query";
+    public static final String COUNT = "count";
+    public static final String MAP = "map";
+    public static final String SERIALIZE = "serialize";
+
+    static final List<String> ORDER = List.of(PARSE, QUEUE, PLAN, QUERY, COUNT, MAP, SERIALIZE);
+
+    // statements kept as text per request; the count goes on past this
+    private static final int MAX_SQL = 32;
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private static final Phase NOOP = () -> {
+    };
+
+    @FunctionalInterface
+    public interface Phase extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final long startedAt = System.nanoTime();
+    private final ConcurrentHashMap<String, LongAdder> phases = new ConcurrentHashMap<>();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    // lock-free: the statement inspector runs on the JDBC path, where a
+    // monitor would pin a virtual thread
+    private final ConcurrentLinkedQueue<String> sql = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sqlCount = new AtomicInteger();
+
+    private volatile long handledAt;
+    private volatile String entity;
+    private volatile String operation;
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // task runs on another thread but its statements still count for this request
+    public static <T> Callable<T> carry(Callable<T> task) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return task;
+        }
+        return () -> {
+            RequestTimings previous = CURRENT.get();
+            CURRENT.set(timings);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    // try (RequestTimings.Phase p = RequestTimings.phase(RequestTimings.QUERY)) { ... }
+    public static Phase phase(String name) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return NOOP;
+        }
+        long start = System.nanoTime();
+        return () -> timings.add(name, System.nanoTime() - start);
+    }
+
+    public static void statement(String text) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.statements.increment();
+            if (timings.sqlCount.getAndUpdate(n -> Math.min(n + 1, MAX_SQL)) < MAX_SQL) {
+                timings.sql.add(text);
+            }
+        }
+    }
+
+    public static void rows(long count) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.rows.add(count);
+        }
+    }
+
+    public void add(String phase, long nanos) {
+        phases.computeIfAbsent(phase, k -> new LongAdder()).add(nanos);
+    }
+
+    public void tag(String entity, String operation) {
+        this.entity = entity;
+        this.operation = operation;
+    }
+
+    // the handler returned; what follows until the response is complete is serialization
+    public void handled() {
+        handledAt = System.nanoTime();
+    }
+
+    // closes the serialize phase and returns the total
+    public long finish() {
+        long now = System.nanoTime();
+        if (handledAt != 0) {
+            add(SERIALIZE, now - handledAt);
+        }
+        return now - startedAt;
+    }
+
+    public Map<String, Long> phases() {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        for (String name : ORDER) {
+            LongAdder nanos = phases.get(name);
+            if (nanos != null) {
+                ordered.put(name, nanos.sum());
+            }
+        }
+        phases.forEach((name, nanos) -> ordered.putIfAbsent(name, nanos.sum()));
+        return ordered;
+    }
+
+    public long statements() {
+        return statements.sum();
+    }
+
+    public long rows() {
+        return rows.sum();
+    }
+
+    public int sqlCount() {
+        return sqlCount.get();
+    }
+
+    // statement text recorded since the given sqlCount()
+    public List<String> sql(int from) {
+        List<String> all = List.copyOf(sql);
+        return from >= all.size() ? List.of() : all.subList(from, all.size());
+    }
+
+    public String entity() {
+        return entity;
+    }
+
+    public String operation() {
+        return operation;
+    }
+
+    public long elapsed() {
+        return System.nanoTime() - startedAt;
+    }
+
+    // parse;dur=0.142, query;dur=3.210, ..., total;dur=5.613, with
+    // sql;desc="3", rows;desc="21" before the total when counts is set
+    public String header(long totalNanos, boolean counts) {
+        StringBuilder header = new StringBuilder();
+        phases().forEach((name, nanos) -> header.append(name).append(";dur=").append(millis(nanos)).append(", "));
+        if (counts) {
+            header.append("sql;desc=\"").append(statements()).append("\", ");
+            header.append("rows;desc=\"").append(rows()).append("\", ");
+        }
+        header.append("total;dur=").append(millis(totalNanos));
+        return header.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
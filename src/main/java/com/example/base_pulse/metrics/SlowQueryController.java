@@ -0,0 +1,34 @@
+package com.example.base_pulse.metrics;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+// The records hold SQL text and, with include-values, filter values, so the
+// endpoints are only mapped with base-pulse.slow-queries.enabled=true.
+@RestController
+@RequestMapping("${base-pulse.metrics.path:/metrics}")
+@ConditionalOnProperty(name = "base-pulse.slow-queries.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class SlowQueryController {
+
+    private final SlowQueryLog slowQueries;
+
+    @GetMapping("/slow-queries")
+    public List<SlowQueryLog.ShapeStats> slowQueries() {
+        return slowQueries.snapshot();
+    }
+
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<Void> reset() {
+        slowQueries.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.base_pulse.metrics;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Queries slower than base-pulse.slow-query.threshold-ms are logged as one
+// JSON record each and folded into a bounded table of the worst query shapes.
+// A shape is the query without its values: entity, fields, filter
+// field/operator pairs and sort. Values are only kept when
+// base-pulse.slow-query.include-values is set, as they may be personal data.
+// Every query timed here is also handed to the IndexAdvisor.
+@Slf4j
+@Component
+public class SlowQueryLog {
+
+    private static final int SAMPLES = 5;
+
+    public record Filter(
+            String field,
+            String operator,
+            @JsonInclude(JsonInclude.Include.NON_NULL) Object value) {
+    }
+
+    public record SlowQuery(
+            Instant at,
+            String entity,
+            String operation,
+            List<String> fields,
+            List<Filter> filters,
+            List<String> sort,
+            long offset,
+            int size,
+            double durationMs,
+            Map<String, Double> phases,
+            long rows,
+            List<String> sql,
+            boolean failed) {
+    }
+
+    public record Shape(String entity, String operation, List<String> fields, List<Filter> filters,
+            List<String> sort) {
+    }
+
+    public record ShapeStats(
+            Shape shape,
+            long count,
+            double meanMs,
+            double maxMs,
+            SlowQuery slowest,
+            List<List<Object>> samples) {
+    }
+
+    private static final class Worst {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private SlowQuery slowest;
+        private final ArrayDeque<List<Object>> samples = new ArrayDeque<>();
+    }
+
+    private final ObjectMapper mapper;
+    private final IndexAdvisor advisor;
+    private final long thresholdNanos;
+    private final int top;
+    private final boolean includeValues;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Shape, Worst> worst = new HashMap<>();
+
+    public SlowQueryLog(
+            ObjectMapper mapper,
+            IndexAdvisor advisor,
+            @Value("${base-pulse.slow-query.threshold-ms:500}") long thresholdMs,
+            @Value("${base-pulse.slow-query.top:20}") int top,
+            @Value("${base-pulse.slow-query.include-values:false}") boolean includeValues) {
+        this.mapper = mapper;
+        this.advisor = advisor;
+        this.thresholdNanos = thresholdMs < 0 ? -1 : thresholdMs * 1_000_000;
+        this.top = top;
+        this.includeValues = includeValues;
+    }
+
+    // Runs the query and records it if it took longer than the threshold.
+    // Outside a timed web request the call is timed on its own, so phases,
+    // rows and statements are still available.
+    public <R> R time(String entity, String operation, List<String> fields, List<SearchCriteria> filters,
+            List<SortCriteria> sort, Pageable pageable, Supplier<R> query) {
+        if (thresholdNanos < 0) {
+            if (!advisor.isEnabled()) {
+                return query.get();
+            }
+            long start = System.nanoTime();
+            R result = query.get();
+            advisor.observe(entity, filters, sort, System.nanoTime() - start);
+            return result;
+        }
+
+        RequestTimings outer = RequestTimings.current();
+        RequestTimings timings = outer != null ? outer : RequestTimings.start();
+        Map<String, Long> phasesBefore = timings.phases();
+        long rowsBefore = timings.rows();
+        int sqlBefore = timings.sqlCount();
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            R result = query.get();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (outer == null) {
+                RequestTimings.clear();
+            }
+            if (!failed) {
+                advisor.observe(entity, filters, sort, elapsed);
+            }
+            if (elapsed >= thresholdNanos) {
+                Map<String, Double> phases = new LinkedHashMap<>();
+                timings.phases().forEach((name, nanos) -> {
+                    long spent = nanos - phasesBefore.getOrDefault(name, 0L);
+                    if (spent > 0) {
+                        phases.put(name, millis(spent));
+                    }
+                });
+
+                boolean paged = pageable != null && pageable.isPaged();
+                SlowQuery slow = new SlowQuery(
+                        Instant.now(),
+                        entity,
+                        operation,
+                        fields == null ? List.of() : List.copyOf(fields),
+                        filters(filters, includeValues),
+                        sort(sort),
+                        paged ? pageable.getOffset() : 0,
+                        paged ? pageable.getPageSize() : 0,
+                        millis(elapsed),
+                        phases,
+                        timings.rows() - rowsBefore,
+                        timings.sql(sqlBefore),
+                        failed);
+
+                log(slow);
+                record(slow, elapsed, includeValues ? values(filters) : null);
+            }
+        }
+    }
+
+    public List<ShapeStats> snapshot() {
+        List<ShapeStats> stats = new ArrayList<>();
+        lock.lock();
+        try {
+            worst.forEach((shape, w) -> stats.add(new ShapeStats(shape, w.count,
+                    millis(w.totalNanos / Math.max(w.count, 1)), millis(w.maxNanos), w.slowest,
+                    List.copyOf(w.samples))));
+        } finally {
+            lock.unlock();
+        }
+        stats.sort(Comparator.comparingDouble(ShapeStats::maxMs).reversed());
+        return stats;
+    }
+
+    public void reset() {
+        lock.lock();
+        try {
+            worst.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void log(SlowQuery slow) {
+        try {
+            log.warn("slow query {}", mapper.writeValueAsString(slow));
+        } catch (JsonProcessingException e) {
+            log.warn("slow query {}", slow);
+        }
+    }
+
+    private void record(SlowQuery slow, long elapsed, List<Object> values) {
+        Shape shape = new Shape(slow.entity(), slow.operation(), slow.fields(),
+                includeValues ? withoutValues(slow.filters()) : slow.filters(), slow.sort());
+
+        lock.lock();
+        try {
+            Worst w = worst.get(shape);
+            if (w == null) {
+                if (worst.size() >= top && !evictFasterThan(elapsed)) {
+                    return;
+                }
+                w = new Worst();
+                worst.put(shape, w);
+            }
+
+            w.count++;
+            w.totalNanos += elapsed;
+            if (elapsed >= w.maxNanos) {
+                w.maxNanos = elapsed;
+                w.slowest = slow;
+            }
+            if (includeValues) {
+                if (w.samples.size() == SAMPLES) {
+                    w.samples.removeFirst();
+                }
+                w.samples.addLast(values);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the table is full: make room by dropping the shape with the lowest
+    // maximum, but only if this query was slower than it
+    private boolean evictFasterThan(long elapsed) {
+        Shape fastest = null;
+        long fastestNanos = Long.MAX_VALUE;
+        for (Map.Entry<Shape, Worst> e : worst.entrySet()) {
+            if (e.getValue().maxNanos < fastestNanos) {
+                fastest = e.getKey();
+                fastestNanos = e.getValue().maxNanos;
+            }
+        }
+        if (fastest == null || fastestNanos >= elapsed) {
+            return false;
+        }
+        worst.remove(fastest);
+        return true;
+    }
+
+    private static List<Filter> filters(List<SearchCriteria> filters, boolean withValues) {
+        if (filters == null) {
+            return List.of();
+        }
+        List<Filter> shape = new ArrayList<>();
+        for (SearchCriteria sc : filters) {
+            shape.add(new Filter(sc.getField(), operator(sc.getOperator()), withValues ? value(sc) : null));
+        }
+        return shape;
+    }
+
+    private static List<Filter> withoutValues(List<Filter> filters) {
+        return filters.stream().map(f -> new Filter(f.field(), f.operator(), null)).toList();
+    }
+
+    private static List<Object> values(List<SearchCriteria> filters) {
+        List<Object> values = new ArrayList<>();
+        if (filters != null) {
+            for (SearchCriteria sc : filters) {
+                values.add(value(sc));
+            }
+        }
+        return values;
+    }
+
+    private static Object value(SearchCriteria sc) {
+        return sc.getOperator() == CrudOperator.BETWEEN
+                ? Arrays.asList(sc.getValue(), sc.getValueTo())
+                : sc.getValue();
+    }
+
+    private static String operator(CrudOperator operator) {
+        return operator == null ? null : operator.name().toLowerCase();
+    }
+
+    private static List<String> sort(List<SortCriteria> sort) {
+        if (sort == null) {
+            return List.of();
+        }
+        return sort.stream()
+                .map(s -> s.getField() + ":" + (s.getDirection() == null ? "asc"
+                        : s.getDirection().name().toLowerCase()))
+                .toList();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+}
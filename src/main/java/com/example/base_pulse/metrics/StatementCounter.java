@@ -0,0 +1,14 @@
+package com.example.base_pulse.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Counts, and keeps the text of, the SQL statements Hibernate prepares for
+// the timed request.
+public class StatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTimings.statement(sql);
+        return sql;
+    }
+}
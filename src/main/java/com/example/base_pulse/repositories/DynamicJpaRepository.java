@@ -2,17 +2,65 @@ package com.example.base_pulse.repositories;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.base_pulse.cache.QueryKey;
+import com.example.base_pulse.specifications.PageCriteria;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
 import com.example.base_pulse.utils.PageResult;
 
 public interface DynamicJpaRepository {
+  default PageResult<Map<String, Object>> findDynamic(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Pageable pageable) {
+    return findDynamic(entity, fields, filters, sort, pageable, PageCriteria.offset());
+  }
+
   PageResult<Map<String, Object>> findDynamic(
       String entity,
       List<String> fields,
       List<SearchCriteria> filters,
       List<SortCriteria> sort,
-      Pageable pageable);
+      Pageable pageable,
+      PageCriteria page);
+
+  // findDynamic with the rows restricted by a Specification instead of
+  // filters, for services that build their own. A Specification is opaque,
+  // so the query is built per call and its pages are never cached.
+  PageResult<Map<String, Object>> findRestricted(
+      String entity,
+      List<String> fields,
+      Specification<?> restriction,
+      List<SortCriteria> sort,
+      Pageable pageable,
+      PageCriteria page);
+
+  // canonical form of the query findDynamic would run
+  QueryKey key(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Pageable pageable,
+      PageCriteria page);
+
+  // moves with every write to the entity or the entities its paths reach
+  long stamp(String entity);
+
+  // rows are handed to the sink one by one while the result is scrolled;
+  // the caller must hold a transaction open for the duration
+  void streamDynamic(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      int fetchSize,
+      Consumer<Map<String, Object>> sink);
 }
@@ -4,132 +4,420 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.stereotype.Repository;
-
-import com.example.base_pulse.specifications.DynamicPredicateBuilder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.base_pulse.bulkhead.Bulkhead;
+import com.example.base_pulse.bulkhead.EntityBulkheads;
+import com.example.base_pulse.cache.QueryKey;
+import com.example.base_pulse.cache.QueryResultCache;
+import com.example.base_pulse.entities.annotations.CachedQueries;
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.metrics.RequestTimings;
+import com.example.base_pulse.metrics.SlowQueryLog;
+import com.example.base_pulse.specifications.CountMode;
+import com.example.base_pulse.specifications.FilterPlan;
+import com.example.base_pulse.specifications.InvalidQueryException;
+import com.example.base_pulse.specifications.KeysetCursor;
+import com.example.base_pulse.specifications.KeysetPredicateBuilder;
+import com.example.base_pulse.specifications.PageCriteria;
+import com.example.base_pulse.specifications.PreparedQueries;
+import com.example.base_pulse.specifications.PreparedQuery;
+import com.example.base_pulse.specifications.QueryParameters;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.BackgroundTasks;
+import com.example.base_pulse.utils.PageCounter;
 import com.example.base_pulse.utils.PageResult;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceProperty;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Selection;
-import jakarta.persistence.metamodel.EntityType;
+
+import lombok.RequiredArgsConstructor;
 
 @Repository
+@RequiredArgsConstructor
 public class DynamicJpaRepositoryImpl implements DynamicJpaRepository {
 
-  @PersistenceContext
+  private static final String KEY_ALIAS = "__k";
+
+  private record SelectShape(
+      List<String> fields,
+      List<FilterPlan.Shape> filters,
+      String sort,
+      boolean keyset,
+      List<Boolean> nullKeys) {
+  }
+
+  private final EntityMetadataRegistry registry;
+  private final QueryResultCache resultCache;
+  private final SlowQueryLog slowQueries;
+  private final EntityBulkheads bulkheads;
+  private final BackgroundTasks tasks;
+  private final EntityManagerFactory emf;
+
+  // temporary EntityManagers opened per call outside a session keep prepared
+  // trees uncopied; a bound session is handled by PreparedQuery itself
+  @PersistenceContext(properties = @PersistenceProperty(name = AvailableSettings.CRITERIA_COPY_TREE, value = "false"))
   private EntityManager em;
 
+  // count on a second connection while the page query runs
+  @Value("${base-pulse.query.parallel-count:false}")
+  private boolean parallelCount;
+
   @Override
   public PageResult<Map<String, Object>> findDynamic(
       String entity,
       List<String> fields,
       List<SearchCriteria> filters,
       List<SortCriteria> sort,
-      Pageable pageable) {
+      Pageable pageable,
+      PageCriteria page) {
 
-    CriteriaBuilder cb = em.getCriteriaBuilder();
+    EntityDescriptor descriptor = registry.get(entity);
+    List<String> projection = resolveFields(fields, descriptor);
 
-    EntityType<?> entityType = resolveEntity(entity);
-    Class<?> entityClass = entityType.getJavaType();
+    return bulkheads.execute(descriptor.getName(),
+        () -> slowQueries.time(descriptor.getName(), "findDynamic", projection, filters, sort, pageable,
+            () -> find(descriptor, projection, filters, sort, pageable, page)));
+  }
 
+  @Override
+  public PageResult<Map<String, Object>> findRestricted(
+      String entity,
+      List<String> fields,
+      Specification<?> restriction,
+      List<SortCriteria> sort,
+      Pageable pageable,
+      PageCriteria page) {
 
-    CriteriaQuery<Tuple> cq = cb.createTupleQuery();
-    Root<?> root = cq.from(entityClass);
+    EntityDescriptor descriptor = registry.get(entity);
+    List<String> projection = resolveFields(fields, descriptor);
 
-    List<String> projection = resolveFields(fields, entityType);
+    boolean keyset = page != null && page.isKeyset() && pageable != null && pageable.isPaged();
+    List<SortCriteria> orderKeys = keyset ? KeysetPredicateBuilder.withTieBreaker(sort) : sort;
 
-    List<Selection<?>> selections = new ArrayList<>();
-    for (String f : projection)
-      selections.add(root.get(f).alias(f));
+    return bulkheads.execute(descriptor.getName(),
+        () -> slowQueries.time(descriptor.getName(), "findRestricted", projection, List.of(), sort, pageable,
+            () -> load(descriptor, projection, List.of(), List.of(), restriction, orderKeys, pageable, page,
+                keyset)));
+  }
 
-    cq.multiselect(selections);
+  private PageResult<Map<String, Object>> find(
+      EntityDescriptor descriptor,
+      List<String> projection,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Pageable pageable,
+      PageCriteria page) {
 
-    List<Predicate> predicates = new ArrayList<>();
+    boolean keyset = page != null && page.isKeyset() && pageable != null && pageable.isPaged();
+    List<SortCriteria> orderKeys = keyset ? KeysetPredicateBuilder.withTieBreaker(sort) : sort;
 
-    if (filters != null && !filters.isEmpty()) {
-      for (SearchCriteria sc : filters)
-        predicates.add(DynamicPredicateBuilder.build(sc, root, cb));
+    List<FilterPlan> plans = PreparedQueries.plans(descriptor, filters);
 
-      cq.where(predicates.toArray(Predicate[]::new));
-    }
+    CachedQueries caching = descriptor.getCachedQueries();
+    if (caching == null)
+      return load(descriptor, projection, plans, filters, null, orderKeys, pageable, page, keyset);
 
-    if (sort != null && !sort.isEmpty()) {
-      List<Order> orders = new ArrayList<>();
+    QueryKey key = QueryKey.of(descriptor, projection, plans, filters, orderKeys, pageable, page, keyset);
+    long stamp = resultCache.stamp(descriptor);
 
-      for (SortCriteria s : sort) {
-        Path<Object> p = resolveSortPath(root, s.getField());
+    PageResult<Map<String, Object>> cached = resultCache.get(key, stamp);
+    if (cached != null)
+      return cached;
 
-        orders.add(
-            s.getDirection().isAscending()
-                ? cb.asc(p)
-                : cb.desc(p));
-      }
+    PageResult<Map<String, Object>> result = load(descriptor, projection, plans, filters, null, orderKeys, pageable,
+        page, keyset);
+    resultCache.put(key, result, stamp, caching.ttlSeconds());
+    return result;
+  }
+
+  @Override
+  public QueryKey key(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Pageable pageable,
+      PageCriteria page) {
+
+    EntityDescriptor descriptor = registry.get(entity);
+
+    boolean keyset = page != null && page.isKeyset() && pageable != null && pageable.isPaged();
+    List<SortCriteria> orderKeys = keyset ? KeysetPredicateBuilder.withTieBreaker(sort) : sort;
+
+    return QueryKey.of(descriptor, resolveFields(fields, descriptor), PreparedQueries.plans(descriptor, filters),
+        filters, orderKeys, pageable, page, keyset);
+  }
 
-      cq.orderBy(orders);
+  @Override
+  public long stamp(String entity) {
+    return resultCache.stamp(registry.get(entity));
+  }
+
+  private PageResult<Map<String, Object>> load(
+      EntityDescriptor descriptor,
+      List<String> projection,
+      List<FilterPlan> plans,
+      List<SearchCriteria> filters,
+      Specification<?> restriction,
+      List<SortCriteria> orderKeys,
+      Pageable pageable,
+      PageCriteria page,
+      boolean keyset) {
+
+    TypedQuery<Tuple> query;
+    List<String> keyAliases;
+
+    try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.PLAN)) {
+      KeysetCursor cursor = keyset && page.getCursor() != null
+          ? KeysetCursor.decode(page.getCursor(), orderKeys)
+          : null;
+
+      SelectShape shape = new SelectShape(
+          List.copyOf(projection),
+          PreparedQueries.shapes(plans),
+          orderKeys == null || orderKeys.isEmpty() ? "" : KeysetCursor.signature(orderKeys),
+          keyset,
+          cursor == null ? null : KeysetPredicateBuilder.nulls(cursor));
+
+      PreparedQuery<Tuple> prepared = restriction == null
+          ? descriptor.prepared(shape,
+              () -> prepare(descriptor, projection, plans, null, orderKeys, keyset, shape.nullKeys()))
+          : prepare(descriptor, projection, plans, restriction, orderKeys, keyset, shape.nullKeys());
+
+      List<Object> values = PreparedQueries.bind(plans, filters);
+      if (cursor != null)
+        KeysetPredicateBuilder.bind(orderKeys, cursor, descriptor, values);
+
+      query = prepared.create(em, values, descriptor.getQueryPolicy().getTimeoutMs());
+      keyAliases = prepared.getAliases();
     }
 
-    TypedQuery<Tuple> query = em.createQuery(cq);
+    boolean paged = pageable != null && pageable.isPaged();
+    int size = paged ? pageable.getPageSize() : 0;
+
+    if (paged) {
+      if (!keyset)
+        query.setFirstResult((int) pageable.getOffset());
 
-    if (pageable != null) {
-      query.setFirstResult((int) pageable.getOffset());
-      query.setMaxResults(pageable.getPageSize());
+      // one extra row tells us whether another page follows
+      query.setMaxResults(size + 1);
     }
 
-    List<Tuple> tuples = query.getResultList();
+    CountMode countMode = PageCounter.resolveMode(page, descriptor);
+    int cap = PageCounter.resolveCap(page, descriptor);
+    ParallelCount count = startCount(descriptor, filters, restriction, countMode, cap);
+    try {
+      List<Tuple> tuples;
+      try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.QUERY)) {
+        tuples = count == null ? query.getResultList() : count.alongside(callerSession(), query::getResultList);
+      }
+      RequestTimings.rows(tuples.size());
 
-    List<Map<String, Object>> rows = new ArrayList<>();
+      boolean hasNext = paged && tuples.size() > size;
+      String nextCursor = null;
+      List<Map<String, Object>> rows = new ArrayList<>();
 
-    for (Tuple t : tuples) {
-      Map<String, Object> row = new LinkedHashMap<>();
+      try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.MAP)) {
+        if (hasNext) {
+          tuples = tuples.subList(0, size);
+          if (keyset)
+            nextCursor = buildCursor(orderKeys, keyAliases, tuples.get(tuples.size() - 1));
+        }
 
-      for (String f : projection)
-        row.put(f, t.get(f));
+        for (Tuple t : tuples)
+          rows.add(toRow(projection, t));
+      }
 
-      rows.add(row);
+      PageResult<Map<String, Object>> result = new PageResult<>(rows, 0, nextCursor);
+      result.setHasNext(hasNext);
+
+      long offset = !paged ? 0
+          : keyset ? (page.getCursor() == null ? 0 : -1)
+          : pageable.getOffset();
+
+      PageCounter.count(
+          result,
+          countMode,
+          cap,
+          offset,
+          () -> count != null ? count.await() : total(em, descriptor, filters, restriction, -1),
+          limit -> count != null ? count.await() : total(em, descriptor, filters, restriction, limit));
+
+      return result;
+    } finally {
+      // a count the page made unnecessary is stopped here
+      if (count != null)
+        count.cancel();
     }
+  }
+
+  // Inside a transaction the count stays on the caller's connection, so it
+  // sees the same snapshot as the page. Outside one, the two statements
+  // never shared a snapshot anyway, and the count can move to its own,
+  // provided the entity's bulkhead has a permit free for it.
+  private ParallelCount startCount(EntityDescriptor descriptor, List<SearchCriteria> filters,
+      Specification<?> restriction, CountMode mode, int cap) {
+    if (!parallelCount || mode == CountMode.NONE || TransactionSynchronizationManager.isActualTransactionActive())
+      return null;
+
+    Bulkhead.Permit permit = bulkheads.tryAcquire(descriptor.getName());
+    if (permit == null)
+      return null;
+
+    long limit = mode == CountMode.CAPPED ? cap + 1L : -1;
+    return ParallelCount.start(tasks, emf, descriptor.getQueryPolicy().getTimeoutMs(), permit,
+        countEm -> total(countEm, descriptor, filters, restriction, limit));
+  }
+
+  // exact when limit < 0
+  private static long total(EntityManager em, EntityDescriptor descriptor, List<SearchCriteria> filters,
+      Specification<?> restriction, long limit) {
+    if (restriction != null)
+      return limit < 0
+          ? PreparedQueries.count(em, descriptor, restriction)
+          : PreparedQueries.countUpTo(em, descriptor, restriction, limit);
+
+    return limit < 0
+        ? PreparedQueries.count(em, descriptor, filters)
+        : PreparedQueries.countUpTo(em, descriptor, filters, limit);
+  }
+
+  // the session the page query runs on, when one is bound to this thread
+  private Session callerSession() {
+    EntityManager bound = EntityManagerFactoryUtils.getTransactionalEntityManager(emf);
+    return bound == null ? null : bound.unwrap(Session.class);
+  }
+
+  @Override
+  public void streamDynamic(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      int fetchSize,
+      Consumer<Map<String, Object>> sink) {
 
+    EntityDescriptor descriptor = registry.get(entity);
+    List<String> projection = resolveFields(fields, descriptor);
+    List<FilterPlan> plans = PreparedQueries.plans(descriptor, filters);
 
-    CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
-    Root<?> countRoot = countQuery.from(entityClass);
+    SelectShape shape = new SelectShape(
+        List.copyOf(projection),
+        PreparedQueries.shapes(plans),
+        sort == null || sort.isEmpty() ? "" : KeysetCursor.signature(sort),
+        false,
+        null);
+
+    PreparedQuery<Tuple> prepared = descriptor.prepared(shape,
+        () -> prepare(descriptor, projection, plans, null, sort, false, null));
+
+    TypedQuery<Tuple> query = prepared.create(em, PreparedQueries.bind(plans, filters));
+    query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+
+    // tuples are scalar, so the persistence context stays empty however many rows pass
+    try (Stream<Tuple> tuples = query.getResultStream()) {
+      tuples.forEach(t -> sink.accept(toRow(projection, t)));
+    }
+  }
 
-    countQuery.select(cb.count(countRoot));
+  private PreparedQuery<Tuple> prepare(
+      EntityDescriptor descriptor,
+      List<String> projection,
+      List<FilterPlan> plans,
+      Specification<?> restriction,
+      List<SortCriteria> orderKeys,
+      boolean keyset,
+      List<Boolean> nullKeys) {
 
-    if (!predicates.isEmpty()) {
-      List<Predicate> countPreds = new ArrayList<>();
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+    QueryParameters parameters = new QueryParameters(cb);
 
-      for (SearchCriteria sc : filters)
-        countPreds.add(DynamicPredicateBuilder.build(sc, countRoot, cb));
+    CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+    Root<?> root = cq.from(descriptor.getJavaType());
 
-      countQuery.where(countPreds.toArray(Predicate[]::new));
+    // dotted fields (address.city) come through a LEFT JOIN that filters and
+    // sorts on the same association reuse
+    List<Selection<?>> selections = new ArrayList<>();
+    for (String f : projection)
+      selections.add(select(descriptor, root, f).alias(f));
+
+    // sort keys missing from the projection are selected under hidden aliases
+    List<String> keyAliases = new ArrayList<>();
+    if (keyset) {
+      for (int i = 0; i < orderKeys.size(); i++) {
+        String field = orderKeys.get(i).getField();
+        if (projection.contains(field)) {
+          keyAliases.add(field);
+        } else {
+          keyAliases.add(KEY_ALIAS + i);
+          selections.add(resolveSortPath(descriptor, root, field).alias(KEY_ALIAS + i));
+        }
+      }
     }
 
-    Long total = em.createQuery(countQuery).getSingleResult();
+    cq.multiselect(selections);
+
+    List<Predicate> predicates = new ArrayList<>(List.of(PreparedQueries.where(plans, root, cq, cb, parameters)));
+
+    Predicate restricted = PreparedQueries.restrict(restriction, root, cq, cb);
+    if (restricted != null)
+      predicates.add(restricted);
+
+    if (nullKeys != null)
+      predicates.add(KeysetPredicateBuilder.build(orderKeys, nullKeys, descriptor, root, cb, parameters));
+
+    if (!predicates.isEmpty())
+      cq.where(predicates.toArray(Predicate[]::new));
+
+    if (orderKeys != null && !orderKeys.isEmpty())
+      cq.orderBy(KeysetPredicateBuilder.orders(orderKeys, descriptor, root, cb));
+
+    return new PreparedQuery<>(cq, parameters.list(), List.copyOf(keyAliases));
+  }
+
+  private Map<String, Object> toRow(List<String> projection, Tuple t) {
+    Map<String, Object> row = new LinkedHashMap<>();
 
+    for (String f : projection)
+      row.put(f, t.get(f));
 
-    return new PageResult<>(rows, total);
+    return row;
   }
 
-  private EntityType<?> resolveEntity(String name) {
-    return em.getMetamodel().getEntities().stream()
-        .filter(e -> e.getName().equals(name) || e.getJavaType().getSimpleName().equals(name))
-        .findFirst()
-        .orElseThrow(() -> new IllegalArgumentException("Entity not found: " + name));
+  private String buildCursor(List<SortCriteria> orderKeys, List<String> keyAliases, Tuple last) {
+    List<Object> values = new ArrayList<>();
+    for (String alias : keyAliases)
+      values.add(last.get(alias));
+
+    return KeysetCursor.of(orderKeys, values).encode();
   }
 
-  private List<String> resolveFields(List<String> fields, EntityType<?> type) {
+  private List<String> resolveFields(List<String> fields, EntityDescriptor descriptor) {
     if (fields != null && !fields.isEmpty()) {
       return fields;
     }
@@ -137,13 +425,20 @@ public class DynamicJpaRepositoryImpl implements DynamicJpaRepository {
     return List.of("id");
   }
 
-  private Path<Object> resolveSortPath(Root<?> root, String field) {
-    if (!field.contains("."))
+  // fields the descriptor does not list, such as a whole association, are
+  // left to the metamodel
+  private static Path<?> select(EntityDescriptor descriptor, Root<?> root, String field) {
+    if (descriptor.getAttributes().containsKey(field))
+      return descriptor.attribute(field).resolve(root);
+    try {
       return root.get(field);
-    String[] parts = field.split("\\.");
-    Path<Object> p = root.get(parts[0]);
-    for (int i = 1; i < parts.length; i++)
-      p = p.get(parts[i]);
-    return p;
+    } catch (IllegalArgumentException e) {
+      throw new InvalidQueryException("Unknown field '" + field + "' on entity " + descriptor.getName(), e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Path<Object> resolveSortPath(EntityDescriptor descriptor, Root<?> root, String field) {
+    return (Path<Object>) descriptor.attribute(field).resolve(root);
   }
 }
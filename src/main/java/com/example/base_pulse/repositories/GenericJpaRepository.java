@@ -4,10 +4,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 
-import com.example.base_pulse.entities.BaseEntity;
+import com.example.base_pulse.entities.AbstractBaseEntity;
 
 @NoRepositoryBean
-public interface GenericJpaRepository<T extends BaseEntity> extends
+public interface GenericJpaRepository<T extends AbstractBaseEntity> extends
     JpaRepository<T, Long>,
     JpaSpecificationExecutor<T> {
 }
@@ -0,0 +1,162 @@
+package com.example.base_pulse.repositories;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
+import org.springframework.core.task.TaskRejectedException;
+
+import com.example.base_pulse.bulkhead.Bulkhead;
+import com.example.base_pulse.metadata.QueryPolicy;
+import com.example.base_pulse.metrics.RequestTimings;
+import com.example.base_pulse.utils.BackgroundTasks;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.QueryTimeoutException;
+
+// A count query started before the page query, on its own read-only
+// connection and in its own transaction, so the two run side by side.
+//
+// Whichever side fails first cancels the other's statement: a failed page
+// cancels the count, and a failed count cancels the page when the caller's
+// session is reachable (bound to the thread, as with open-in-view). Counts
+// that turn out not to be needed are cancelled the same way.
+//
+// The extra connection is covered by a bulkhead permit of its own, given back
+// when the count ends.
+final class ParallelCount {
+
+  // the longest wait for a count when the entity sets no query timeout
+  private static final int DEFAULT_TIMEOUT_MS = QueryPolicy.DEFAULT.getTimeoutMs();
+
+  private final long deadline;
+  private final CompletableFuture<Long> result;
+
+  private volatile Session countSession;
+  private volatile Session pageSession;
+  private volatile boolean cancelled;
+
+  private ParallelCount(long timeoutMs) {
+    long wait = timeoutMs > 0 ? timeoutMs : DEFAULT_TIMEOUT_MS;
+    this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(wait);
+    this.result = new CompletableFuture<>();
+  }
+
+  // null when the background queue is full; the caller then counts inline
+  static ParallelCount start(BackgroundTasks tasks, EntityManagerFactory emf, int timeoutMs, Bulkhead.Permit permit,
+      Function<EntityManager, Long> count) {
+    ParallelCount task = new ParallelCount(timeoutMs);
+    CompletableFuture<Long> submitted;
+    try {
+      submitted = tasks.submit(RequestTimings.carry(() -> task.run(emf, count)));
+    } catch (TaskRejectedException e) {
+      permit.close();
+      return null;
+    }
+    submitted.whenComplete((total, failure) -> {
+      permit.close();
+      if (failure == null) {
+        task.result.complete(total);
+      } else {
+        task.result.completeExceptionally(failure);
+        if (!task.cancelled)
+          cancel(task.pageSession);
+      }
+    });
+    return task;
+  }
+
+  private long run(EntityManagerFactory emf, Function<EntityManager, Long> count) {
+    EntityManager em = emf.createEntityManager();
+    try {
+      Session session = em.unwrap(Session.class);
+      session.setDefaultReadOnly(true);
+      session.setHibernateFlushMode(FlushMode.MANUAL);
+      countSession = session;
+
+      em.getTransaction().begin();
+      try {
+        session.doWork(connection -> connection.setReadOnly(true));
+        if (cancelled)
+          throw new PersistenceException("Count cancelled");
+        return count.apply(em);
+      } finally {
+        em.getTransaction().rollback();
+      }
+    } finally {
+      countSession = null;
+      em.close();
+    }
+  }
+
+  // runs the page query on the caller's thread; caller may be null when its
+  // session cannot be reached from here
+  <T> T alongside(Session caller, Supplier<T> page) {
+    pageSession = caller;
+    try {
+      if (result.isCompletedExceptionally())
+        throw failure();
+      return page.get();
+    } catch (RuntimeException e) {
+      // the page was most likely cancelled because the count failed first
+      if (result.isCompletedExceptionally() && !cancelled)
+        throw failure();
+      throw e;
+    } finally {
+      pageSession = null;
+    }
+  }
+
+  // waits for the count until the query timeout runs out
+  long await() {
+    try {
+      long remaining = deadline - System.nanoTime();
+      return result.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      cancel();
+      throw new QueryTimeoutException("Count query timed out");
+    } catch (InterruptedException e) {
+      cancel();
+      Thread.currentThread().interrupt();
+      throw new PersistenceException("Interrupted while waiting for the count", e);
+    } catch (ExecutionException e) {
+      throw failure();
+    }
+  }
+
+  // no-op once the count has finished
+  void cancel() {
+    if (result.isDone())
+      return;
+    cancelled = true;
+    cancel(countSession);
+  }
+
+  private RuntimeException failure() {
+    try {
+      result.getNow(null);
+      return new IllegalStateException("Count has not failed");
+    } catch (RuntimeException e) {
+      Throwable cause = e.getCause() != null ? e.getCause() : e;
+      return cause instanceof RuntimeException runtime ? runtime : new PersistenceException(cause);
+    }
+  }
+
+  private static void cancel(Session session) {
+    if (session == null)
+      return;
+    try {
+      session.cancelQuery();
+    } catch (RuntimeException ignored) {
+      // the statement finished or was never started
+    }
+  }
+}
@@ -1,8 +1,8 @@
 package com.example.base_pulse.services;
 
-import com.example.base_pulse.entities.BaseEntity;
+import com.example.base_pulse.entities.AbstractBaseEntity;
 
-public interface BaseService<T extends BaseEntity>
+public interface BaseService<T extends AbstractBaseEntity>
     extends CreatableService<T>, ReadableService<T>, UpdatableService<T>, DeletableService {
 
   default void validate(T entity) {
@@ -1,35 +1,141 @@
 package com.example.base_pulse.services;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-
-import com.example.base_pulse.entities.BaseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.SerializationUtils;
+
+import com.example.base_pulse.bulkhead.EntityBulkheads;
+import com.example.base_pulse.cache.CacheStats;
+import com.example.base_pulse.cache.EntityCache;
+import com.example.base_pulse.cache.EntityVersions;
+import com.example.base_pulse.entities.AbstractBaseEntity;
+import com.example.base_pulse.entities.annotations.ReadThroughCache;
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.metrics.RequestTimings;
+import com.example.base_pulse.metrics.SlowQueryLog;
+import com.example.base_pulse.repositories.DynamicJpaRepository;
 import com.example.base_pulse.repositories.GenericJpaRepository;
+import com.example.base_pulse.specifications.CountMode;
+import com.example.base_pulse.specifications.CrudOperator;
 import com.example.base_pulse.specifications.DynamicPredicateBuilder;
+import com.example.base_pulse.specifications.FilterPlan;
+import com.example.base_pulse.specifications.KeysetCursor;
+import com.example.base_pulse.specifications.KeysetPredicateBuilder;
+import com.example.base_pulse.specifications.PageCriteria;
+import com.example.base_pulse.specifications.PreparedQueries;
+import com.example.base_pulse.specifications.PreparedQuery;
+import com.example.base_pulse.specifications.QueryParameters;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.BatchResult;
 import com.example.base_pulse.utils.ObjectMerger;
+import com.example.base_pulse.utils.PageCounter;
 import com.example.base_pulse.utils.PageResult;
+import com.example.base_pulse.utils.ReadOnlyReads;
 
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceProperty;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 
-public class BaseServiceImpl<T extends BaseEntity> implements BaseService<T> {
+public class BaseServiceImpl<T extends AbstractBaseEntity> implements BaseService<T> {
 
     protected final GenericJpaRepository<T> repository;
 
+    protected final Class<T> entityClass;
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    // runs the prepared queries only: temporary EntityManagers opened per call
+    // outside a session keep their trees uncopied, the subclass's queries don't
+    @PersistenceContext(properties = @PersistenceProperty(name = AvailableSettings.CRITERIA_COPY_TREE, value = "false"))
+    private EntityManager preparedEntityManager;
+
+    @Autowired(required = false)
+    protected EntityMetadataRegistry metadataRegistry;
+
+    // required by the batch operations, which fail without one
+    @Autowired(required = false)
+    protected PlatformTransactionManager transactionManager;
+
+    // bumped on every write so cached dynamic query results go stale
+    @Autowired(required = false)
+    protected EntityVersions entityVersions;
+
+    @Autowired(required = false)
+    protected SlowQueryLog slowQueries;
+
+    // caps concurrent reads and batches per entity; single writes run in their
+    // own transaction and are not held up
+    @Autowired(required = false)
+    protected EntityBulkheads bulkheads;
+
+    // tuple queries behind findFields
+    @Autowired(required = false)
+    protected DynamicJpaRepository dynamicRepository;
+
+    // rows per transaction for the batch operations
+    @Value("${base-pulse.batch.chunk-size:500}")
+    protected int batchChunkSize = 500;
+
+    private volatile EntityDescriptor descriptor;
+
+    // findById/exists cache, present when the entity or the service carries @ReadThroughCache
+    private final EntityCache cache;
+
+    private record SelectShape(List<FilterPlan.Shape> filters, String sort, List<Boolean> nullKeys) {
+    }
+
+    @SuppressWarnings("unchecked")
     public BaseServiceImpl(GenericJpaRepository<T> repository) {
         this.repository = repository;
+        this.entityClass = (Class<T>) ResolvableType.forClass(BaseServiceImpl.class, getClass()).resolveGeneric(0);
+        this.cache = createCache(getClass(), entityClass);
+    }
+
+    public BaseServiceImpl(GenericJpaRepository<T> repository, Class<T> entityClass) {
+        this.repository = repository;
+        this.entityClass = entityClass;
+        this.cache = createCache(getClass(), entityClass);
     }
 
     @Override
@@ -37,68 +143,424 @@ public class BaseServiceImpl<T extends BaseEntity> implements BaseService<T> {
     public T create(T entity) {
         validate(entity);
         T saved = save(entity);
+        evict(saved.getId());
         return saved;
     }
 
+    @Override
+    public BatchResult createAll(List<T> entities) {
+        Long[] ids = entities.stream().map(AbstractBaseEntity::getId).toArray(Long[]::new);
+
+        return runBatch(entities.size(),
+                (from, to) -> {
+                },
+                i -> BatchResult.Item.ok(i, create(entities.get(i)).getId(), HttpStatus.CREATED),
+                i -> entities.get(i).setId(ids[i]),
+                i -> ids[i]);
+    }
+
+    @Override
+    public BatchResult patchAll(List<T> partialEntities) {
+        return runBatch(partialEntities.size(),
+                // one select for the chunk; patch() then finds each row in the persistence context
+                (from, to) -> repository.findAllById(partialEntities.subList(from, to).stream()
+                        .map(AbstractBaseEntity::getId)
+                        .filter(Objects::nonNull)
+                        .toList()),
+                i -> {
+                    Long id = partialEntities.get(i).getId();
+                    if (id == null) {
+                        throw new IllegalArgumentException("Missing id");
+                    }
+                    return BatchResult.Item.ok(i, patch(id, partialEntities.get(i)).getId(), HttpStatus.OK);
+                },
+                i -> {
+                },
+                i -> partialEntities.get(i).getId());
+    }
+
+    @Override
+    public BatchResult deleteAllByIds(List<Long> ids) {
+        return runBatch(ids.size(),
+                (from, to) -> repository.findAllById(ids.subList(from, to)),
+                i -> {
+                    delete(ids.get(i));
+                    return BatchResult.Item.ok(i, ids.get(i), HttpStatus.NO_CONTENT);
+                },
+                i -> {
+                },
+                ids::get);
+    }
+
+    // Each chunk runs in its own transaction and is flushed as JDBC batches on
+    // commit. When a chunk fails as a whole (e.g. a constraint violation on
+    // flush) it is rolled back and replayed one item per transaction, so every
+    // item still gets its own result.
+    private BatchResult runBatch(int size, BiConsumer<Integer, Integer> preload, IntFunction<BatchResult.Item> operation,
+            IntConsumer reset, IntFunction<Long> idOf) {
+        return guarded(() -> batch(size, preload, operation, reset, idOf));
+    }
+
+    private BatchResult batch(int size, BiConsumer<Integer, Integer> preload, IntFunction<BatchResult.Item> operation,
+            IntConsumer reset, IntFunction<Long> idOf) {
+        if (transactionManager == null) {
+            throw new IllegalStateException("Batch operations on " + entityClass.getSimpleName()
+                    + " need a PlatformTransactionManager bean, and none is configured");
+        }
+
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        BatchResult result = new BatchResult(size);
+
+        for (int from = 0; from < size; from += batchChunkSize) {
+            int start = from;
+            int end = Math.min(size, from + batchChunkSize);
+
+            List<BatchResult.Item> items;
+            try {
+                items = transactions.execute(status -> {
+                    preload.accept(start, end);
+                    List<BatchResult.Item> chunk = new ArrayList<>(end - start);
+                    for (int i = start; i < end; i++) {
+                        chunk.add(attempt(i, operation, idOf, status));
+                    }
+                    return chunk;
+                });
+            } catch (RuntimeException chunkFailure) {
+                items = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    int index = i;
+                    reset.accept(index);
+                    try {
+                        items.add(transactions.execute(status -> attempt(index, operation, idOf, status)));
+                    } catch (RuntimeException e) {
+                        items.add(BatchResult.Item.failed(index, idOf.apply(index), e));
+                    }
+                }
+            }
+
+            items.forEach(result::add);
+        }
+
+        return result;
+    }
+
+    private BatchResult.Item attempt(int index, IntFunction<BatchResult.Item> operation, IntFunction<Long> idOf,
+            TransactionStatus status) {
+        try {
+            return operation.apply(index);
+        } catch (RuntimeException e) {
+            // a failure the persistence context saw poisons the whole transaction
+            if (status.isRollbackOnly()) {
+                throw e;
+            }
+            return BatchResult.Item.failed(index, idOf.apply(index), e);
+        }
+    }
+
     @Override
     public T findById(Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Entity with id " + id + " not found"));
+        if (!cacheable()) {
+            return guarded(() -> load(id));
+        }
+
+        byte[] cached = cache.get(id);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        long generation = cache.generation();
+        T entity = guarded(() -> load(id));
+        cache.put(id, SerializationUtils.serialize(entity), generation);
+        return entity;
+    }
+
+    @Override
+    public T findById(Long id, List<String> expand) {
+        FetchPlan plan = fetchPlan(expand);
+        if (plan.isEmpty()) {
+            return findById(id);
+        }
+        // the cache holds entities as they load by default, so expanded reads skip it
+        return guarded(() -> expanded(plan, () -> load(id, plan)));
+    }
+
+    private T load(Long id, FetchPlan plan) {
+        T entity;
+        try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.QUERY)) {
+            Map<String, Object> hints = new HashMap<>(ReadOnlyReads.hints());
+            EntityGraph<T> graph = plan.graph(entityManager, entityClass);
+            if (graph != null) {
+                hints.put(SpecHints.HINT_SPEC_LOAD_GRAPH, graph);
+            }
+            entity = entityManager.find(entityClass, id, hints);
+            if (entity == null) {
+                throw new EntityNotFoundException("Entity with id " + id + " not found");
+            }
+            plan.loadCollections(entityManager, List.of(entity));
+        }
+        RequestTimings.rows(1);
+        return entity;
+    }
+
+    private T load(Long id) {
+        T entity;
+        try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.QUERY)) {
+            entity = entityManager.find(entityClass, id, ReadOnlyReads.hints());
+        }
+        if (entity == null) {
+            throw new EntityNotFoundException("Entity with id " + id + " not found");
+        }
+        RequestTimings.rows(1);
+        return entity;
     }
 
     @Override
     public PageResult<T> findAll(Pageable pageable, List<SearchCriteria> filters, List<SortCriteria> sort) {
+        return findAll(pageable, filters, sort, PageCriteria.offset());
+    }
 
-        Sort finalSort = Sort.unsorted();
-        if (sort != null && !sort.isEmpty()) {
-            List<Sort.Order> orders = sort.stream()
-                    .map(s -> new Sort.Order(s.getDirection(), s.getField()))
-                    .toList();
-            finalSort = Sort.by(orders);
+    @Override
+    public PageResult<T> findAll(Pageable pageable, List<SearchCriteria> filters, List<SortCriteria> sort,
+            PageCriteria pageCriteria) {
+        return findAll(pageable, filters, sort, pageCriteria, List.of());
+    }
+
+    @Override
+    public PageResult<T> findAll(Pageable pageable, List<SearchCriteria> filters, List<SortCriteria> sort,
+            PageCriteria pageCriteria, List<String> expand) {
+        FetchPlan plan = fetchPlan(expand);
+        Supplier<PageResult<T>> page = () -> expanded(plan, () -> page(pageable, filters, sort, pageCriteria, plan));
+        if (slowQueries == null) {
+            return guarded(page);
         }
+        // whole entities are loaded, hence "*" for the fields
+        return guarded(() -> slowQueries.time(descriptor().getName(), "findAll", List.of("*"), filters, sort,
+                pageable, page));
+    }
 
-        Pageable finalPageable = PageRequest.of(
-                pageable.getPageNumber(),
-                pageable.getPageSize(),
-                finalSort);
+    private PageResult<T> page(Pageable pageable, List<SearchCriteria> filters, List<SortCriteria> sort,
+            PageCriteria pageCriteria, FetchPlan plan) {
 
-        Specification<T> spec = buildSpecification(filters);
+        boolean paged = pageable.isPaged();
+        boolean keyset = paged && pageCriteria != null && pageCriteria.isKeyset();
+        int size = paged ? pageable.getPageSize() : 0;
 
-        Page<T> page = (spec == null)
-                ? repository.findAll(finalPageable)
-                : repository.findAll(spec, finalPageable);
+        List<SortCriteria> keys = keyset ? KeysetPredicateBuilder.withTieBreaker(sort) : sort;
+        KeysetCursor position = keyset && pageCriteria.getCursor() != null
+                ? KeysetCursor.decode(pageCriteria.getCursor(), keys)
+                : null;
 
-        return new PageResult<>(page.getContent(), page.getTotalElements());
+        // one extra row tells us whether another page follows
+        List<T> rows = fetch(filters, keys, position, keyset || !paged ? 0 : pageable.getOffset(),
+                paged ? size + 1 : -1, plan);
+
+        boolean hasNext = paged && rows.size() > size;
+        String nextCursor = null;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+            if (keyset) {
+                nextCursor = buildCursor(keys, rows.get(size - 1));
+            }
+        }
+
+        if (plan.hasCollections()) {
+            try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.QUERY)) {
+                plan.loadCollections(entityManager, rows);
+            }
+        }
+
+        PageResult<T> result = new PageResult<>(rows, 0, nextCursor);
+        result.setHasNext(hasNext);
+
+        long offset = !paged ? 0
+                : keyset ? (pageCriteria.getCursor() == null ? 0 : -1)
+                : pageable.getOffset();
+
+        PageCounter.count(
+                result,
+                PageCounter.resolveMode(pageCriteria, descriptor()),
+                PageCounter.resolveCap(pageCriteria, descriptor()),
+                offset,
+                () -> count(filters),
+                limit -> countUpTo(filters, limit));
+
+        return result;
     }
 
+    // Sparse fieldsets run as the tuple queries of /dynamic, which also take
+    // the bulkhead permit and time the query. A buildSpecification opted into
+    // with usesBuildSpecification is applied there in place of the filters.
     @Override
-    @Transactional
-    public T replace(Long id, T fullEntity) {
-        if (!exists(id)) {
+    public PageResult<Map<String, Object>> findFields(Pageable pageable, List<SearchCriteria> filters,
+            List<SortCriteria> sort, PageCriteria pageCriteria, List<String> fields) {
+        if (dynamicRepository == null) {
+            throw new UnsupportedQueryException("fields is not supported without a DynamicJpaRepository bean");
+        }
+
+        String entity = descriptor().getName();
+        if (usesBuildSpecification()) {
+            return dynamicRepository.findRestricted(entity, fields, buildSpecification(filters), sort, pageable,
+                    pageCriteria);
+        }
+        return dynamicRepository.findDynamic(entity, fields, filters, sort, pageable, pageCriteria);
+    }
+
+    @Override
+    public Map<String, Object> findFieldsById(Long id, List<String> fields) {
+        PageCriteria page = PageCriteria.offset();
+        page.setCountMode(CountMode.NONE);
+
+        PageResult<Map<String, Object>> result = findFields(Pageable.ofSize(1),
+                List.of(new SearchCriteria("id", CrudOperator.EQ, id)), List.of(), page, fields);
+        if (result.getContent().isEmpty()) {
             throw new EntityNotFoundException("Entity with id " + id + " not found");
         }
+        return result.getContent().get(0);
+    }
+
+    protected List<T> fetch(List<SearchCriteria> filters, List<SortCriteria> sort, KeysetCursor position,
+            long offset, int limit) {
+        return fetch(filters, sort, position, offset, limit, FetchPlan.NONE);
+    }
+
+    // plan adds a load graph for the expanded to-one paths; its collections are left to the caller
+    protected List<T> fetch(List<SearchCriteria> filters, List<SortCriteria> sort, KeysetCursor position,
+            long offset, int limit, FetchPlan plan) {
+        TypedQuery<T> typed;
+
+        try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.PLAN)) {
+            EntityDescriptor entity = descriptor();
+            boolean custom = usesBuildSpecification();
+            List<FilterPlan> plans = custom ? List.of() : PreparedQueries.plans(entity, filters);
+            Specification<T> spec = custom ? buildSpecification(filters) : null;
+
+            SelectShape shape = new SelectShape(
+                    PreparedQueries.shapes(plans),
+                    sort == null || sort.isEmpty() ? "" : KeysetCursor.signature(sort),
+                    position == null ? null : KeysetPredicateBuilder.nulls(position));
+
+            // an overridden buildSpecification is opaque, so that tree is rebuilt per call
+            PreparedQuery<T> prepared = custom
+                    ? prepare(spec, plans, sort, shape.nullKeys())
+                    : entity.prepared(shape, () -> prepare(null, plans, sort, shape.nullKeys()));
+
+            List<Object> values = PreparedQueries.bind(plans, filters);
+            if (position != null) {
+                KeysetPredicateBuilder.bind(sort, position, entity, values);
+            }
+
+            typed = prepared.create(preparedEntityManager, values, entity.getQueryPolicy().getTimeoutMs());
+            if (limit >= 0) {
+                typed.setFirstResult((int) offset);
+                typed.setMaxResults(limit);
+            }
+
+            EntityGraph<T> graph = plan.graph(entityManager, entityClass);
+            if (graph != null) {
+                typed.setHint(SpecHints.HINT_SPEC_LOAD_GRAPH, graph);
+            }
+        }
+
+        List<T> rows;
+        try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.QUERY)) {
+            rows = typed.getResultList();
+        }
+        RequestTimings.rows(rows.size());
+        return rows;
+    }
+
+    private PreparedQuery<T> prepare(Specification<T> spec, List<FilterPlan> plans, List<SortCriteria> sort,
+            List<Boolean> nullKeys) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        QueryParameters parameters = new QueryParameters(cb);
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+
+        List<Predicate> predicates = new ArrayList<>(List.of(PreparedQueries.where(plans, root, query, cb, parameters)));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+
+        if (nullKeys != null) {
+            predicates.add(KeysetPredicateBuilder.build(sort, nullKeys, descriptor(), root, cb, parameters));
+        }
+
+        if (!predicates.isEmpty()) {
+            query.where(predicates.toArray(Predicate[]::new));
+        }
+
+        query.orderBy(KeysetPredicateBuilder.orders(sort, descriptor(), root, cb));
+
+        return new PreparedQuery<>(query, parameters.list());
+    }
+
+    protected long count(List<SearchCriteria> filters) {
+        if (usesBuildSpecification()) {
+            Specification<T> spec = buildSpecification(filters);
+            return spec == null ? repository.count() : repository.count(spec);
+        }
+
+        return PreparedQueries.count(preparedEntityManager, descriptor(), filters);
+    }
+
+    protected long countUpTo(List<SearchCriteria> filters, long limit) {
+        if (usesBuildSpecification()) {
+            return countUpTo(buildSpecification(filters), limit);
+        }
+
+        return PreparedQueries.countUpTo(preparedEntityManager, descriptor(), filters, limit);
+    }
+
+    // select count(*) from (select id from ... where ... fetch first :limit rows)
+    protected long countUpTo(Specification<T> spec, long limit) {
+        return PreparedQueries.countUpTo(preparedEntityManager, descriptor(), spec, limit);
+    }
+
+    private String buildCursor(List<SortCriteria> keys, T last) {
+        BeanWrapper wrapper = new BeanWrapperImpl(last);
+        List<Object> values = new ArrayList<>();
+        for (SortCriteria key : keys) {
+            values.add(wrapper.getPropertyValue(key.getField()));
+        }
+        return KeysetCursor.of(keys, values).encode();
+    }
+
+    @Override
+    @Transactional
+    public T replace(Long id, T fullEntity) {
+        // the merge below copies onto this instance
+        writable(load(id));
 
         validate(fullEntity);
         fullEntity.setId(id);
         T saved = save(fullEntity);
+        evict(id);
         return saved;
     }
 
     @Override
     @Transactional
     public T patch(Long id, T partialEntity) {
-        T existing = findById(id);
+        // merge onto the managed row, never onto a cached copy
+        T existing = load(id);
+        writable(existing);
         ObjectMerger.mergeNonNullFields(partialEntity, existing);
         validate(existing);
         T saved = save(existing);
+        evict(id);
         return saved;
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
-        T entity = findById(id);
+        T entity = load(id);
         repository.delete(entity);
+        evict(id);
     }
 
     @Override
@@ -109,12 +571,28 @@ public class BaseServiceImpl<T extends BaseEntity> implements BaseService<T> {
             throw new IllegalArgumentException("deleteAll without filters is not allowed");
         }
 
-        Specification<T> spec = buildSpecification(searchCriterias);
+        if (usesBuildSpecification()) {
+            repository.delete(buildSpecification(searchCriterias));
+            evictAll();
+            return;
+        }
 
-        repository.delete(spec);
+        // Built here rather than through repository.delete(spec): Spring Data
+        // hands a specification a throwaway select next to the delete's root,
+        // and EXISTS subqueries for to-many filters must belong to the delete.
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<T> delete = cb.createCriteriaDelete(entityClass);
+        Root<T> root = delete.from(entityClass);
+        delete.where(DynamicPredicateBuilder.build(searchCriterias, descriptor(), root, delete, cb));
+
+        entityManager.createQuery(delete).executeUpdate();
+        evictAll();
     }
 
     public boolean exists(Long id) {
+        if (cacheable() && cache.get(id) != null) {
+            return true;
+        }
         return repository.existsById(id);
     }
 
@@ -123,34 +601,155 @@ public class BaseServiceImpl<T extends BaseEntity> implements BaseService<T> {
     }
 
     public List<T> findAll() {
-        return repository.findAll();
+        CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(entityClass);
+        query.select(query.from(entityClass));
+        return ReadOnlyReads.apply(entityManager.createQuery(query)).getResultList();
     }
 
     public List<T> findAllByIds(List<Long> ids) {
-        return repository.findAllById(ids);
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        query.select(root).where(root.get("id").in(ids));
+        return ReadOnlyReads.apply(entityManager.createQuery(query)).getResultList();
     }
 
     @Transactional
     public void deleteAll() {
         repository.deleteAll();
+        evictAll();
+    }
+
+    // null when the entity is not cached
+    public CacheStats getCacheStats() {
+        return cache == null ? null : cache.stats();
+    }
+
+    // Inside a transaction reads stay on the persistence context, so callers
+    // get managed instances and see their own uncommitted writes.
+    private boolean cacheable() {
+        return cache != null && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    // Evicts now and again once the transaction ends, so a reader that loaded
+    // the old row before the commit cannot leave it behind.
+    protected void evict(Long id) {
+        Runnable action = () -> {
+            if (cache != null && id != null) {
+                cache.invalidate(id);
+            }
+            bumpVersion();
+        };
+        action.run();
+        afterCompletion(action);
+    }
+
+    protected void evictAll() {
+        Runnable action = () -> {
+            if (cache != null) {
+                cache.invalidateAll();
+            }
+            bumpVersion();
+        };
+        action.run();
+        afterCompletion(action);
+    }
+
+    private void bumpVersion() {
+        if (entityVersions != null) {
+            entityVersions.bump(entityClass);
+        }
+    }
+
+    // Outside a transaction reads load read-only entities; with open-in-view
+    // the session outlives them, and a write in the same request must first
+    // make the instance dirty-checked again, before it is changed.
+    private void writable(T entity) {
+        Session session = entityManager.unwrap(Session.class);
+        if (session.contains(entity) && session.isReadOnly(entity)) {
+            session.setReadOnly(entity, false);
+        }
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private T copyOf(byte[] bytes) {
+        try (ObjectInputStream in = new ConfigurableObjectInputStream(new ByteArrayInputStream(bytes),
+                entityClass.getClassLoader())) {
+            return entityClass.cast(in.readObject());
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot read cached " + entityClass.getSimpleName(), e);
+        }
+    }
+
+    private static EntityCache createCache(Class<?> serviceClass, Class<?> entityClass) {
+        ReadThroughCache config = AnnotatedElementUtils.findMergedAnnotation(serviceClass, ReadThroughCache.class);
+        if (config == null && entityClass != null) {
+            config = AnnotatedElementUtils.findMergedAnnotation(entityClass, ReadThroughCache.class);
+        }
+        return EntityCache.of(config);
     }
 
     protected T save(T entity) {
         return repository.save(entity);
     }
 
+    private FetchPlan fetchPlan(List<String> expand) {
+        return FetchPlan.of(entityManager.getMetamodel(), entityClass, expand);
+    }
+
+    // Collections are loaded by a second query into the same persistence
+    // context, so both run in one read-only transaction (or the caller's).
+    private <R> R expanded(FetchPlan plan, Supplier<R> call) {
+        if (!plan.hasCollections() || transactionManager == null) {
+            return call.get();
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> call.get());
+    }
+
+    private <R> R guarded(Supplier<R> call) {
+        return bulkheads == null ? call.get() : bulkheads.execute(descriptor().getName(), call);
+    }
+
+    protected EntityDescriptor descriptor() {
+        EntityDescriptor current = descriptor;
+        if (current == null) {
+            current = (metadataRegistry != null)
+                    ? metadataRegistry.get(entityClass)
+                    : EntityMetadataRegistry.describe(entityManager.getMetamodel().entity(entityClass));
+            descriptor = current;
+        }
+        return current;
+    }
+
+    // Reads compile the filters into cached plans and never call
+    // buildSpecification. A subclass that overrides it returns true here, and
+    // its specification is then applied on every read, built per call.
+    protected boolean usesBuildSpecification() {
+        return false;
+    }
+
     protected Specification<T> buildSpecification(List<SearchCriteria> filters) {
         if (filters == null || filters.isEmpty()) {
             return null;
         }
 
-        return (root, query, cb) -> {
-            List<Predicate> preds = new ArrayList<>();
-            for (SearchCriteria sc : filters) {
-                preds.add(DynamicPredicateBuilder.build(sc, root, cb));
-            }
-            return cb.and(preds.toArray(Predicate[]::new));
-        };
+        EntityDescriptor entity = descriptor();
+
+        return (root, query, cb) -> DynamicPredicateBuilder.build(filters, entity, root, query, cb);
     }
 
 }
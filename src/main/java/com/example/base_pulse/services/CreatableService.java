@@ -1,7 +1,18 @@
 package com.example.base_pulse.services;
 
-import com.example.base_pulse.entities.BaseEntity;
+import java.util.List;
 
-public interface CreatableService<T extends BaseEntity> {
+import org.springframework.http.HttpStatus;
+
+import com.example.base_pulse.entities.AbstractBaseEntity;
+import com.example.base_pulse.utils.BatchResult;
+
+public interface CreatableService<T extends AbstractBaseEntity> {
     T create(T entity);
+
+    default BatchResult createAll(List<T> entities) {
+        return BatchResult.each(entities.size(),
+                i -> BatchResult.Item.ok(i, create(entities.get(i)).getId(), HttpStatus.CREATED),
+                i -> entities.get(i).getId());
+    }
 }
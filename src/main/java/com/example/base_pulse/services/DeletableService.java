@@ -2,11 +2,23 @@ package com.example.base_pulse.services;
 
 import java.util.List;
 
+import org.springframework.http.HttpStatus;
+
 import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.utils.BatchResult;
 
 public interface DeletableService {
 
     void delete(Long id);
 
     void deleteAll(List<SearchCriteria> searchCriterias);
+
+    default BatchResult deleteAllByIds(List<Long> ids) {
+        return BatchResult.each(ids.size(),
+                i -> {
+                    delete(ids.get(i));
+                    return BatchResult.Item.ok(i, ids.get(i), HttpStatus.NO_CONTENT);
+                },
+                ids::get);
+    }
 }
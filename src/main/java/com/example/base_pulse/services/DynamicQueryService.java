@@ -2,9 +2,11 @@ package com.example.base_pulse.services;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Pageable;
 
+import com.example.base_pulse.specifications.PageCriteria;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
 import com.example.base_pulse.utils.PageResult;
@@ -17,8 +19,23 @@ public interface DynamicQueryService {
       List<SortCriteria> sort,
       Pageable pageable);
 
+  PageResult<Map<String, Object>> findList(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Pageable pageable,
+      PageCriteria page);
+
   Map<String, Object> findOne(
       String entity,
       List<String> fields,
       List<SearchCriteria> filters);
+
+  void stream(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Consumer<Map<String, Object>> sink);
 }
@@ -2,12 +2,23 @@ package com.example.base_pulse.services;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.base_pulse.cache.QueryKey;
 import com.example.base_pulse.repositories.DynamicJpaRepository;
+import com.example.base_pulse.specifications.CountMode;
+import com.example.base_pulse.specifications.PageCriteria;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
 import com.example.base_pulse.utils.PageResult;
+import com.example.base_pulse.utils.SingleFlight;
 
 import lombok.RequiredArgsConstructor;
 
@@ -15,8 +26,21 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class DynamicQueryServiceImpl implements DynamicQueryService {
 
+  // the stamp keeps a caller that arrives after a write from joining a read
+  // that started before it
+  private record Flight(QueryKey query, long stamp) {
+  }
+
   private final DynamicJpaRepository dynamicRepo;
 
+  private final SingleFlight<Flight, PageResult<Map<String, Object>>> flights = new SingleFlight<>();
+
+  @Value("${base-pulse.stream.fetch-size:500}")
+  private int streamFetchSize = 500;
+
+  @Value("${base-pulse.query.coalesce:true}")
+  private boolean coalesce = true;
+
   @Override
   public PageResult<Map<String, Object>> findList(
       String entity,
@@ -24,7 +48,44 @@ public class DynamicQueryServiceImpl implements DynamicQueryService {
       List<SearchCriteria> filters,
       List<SortCriteria> sort,
       Pageable pageable) {
-    return dynamicRepo.findDynamic(entity, fields, filters, sort, pageable);
+    return coalesce(entity, fields, filters, sort, pageable, PageCriteria.offset(),
+        () -> dynamicRepo.findDynamic(entity, fields, filters, sort, pageable));
+  }
+
+  @Override
+  public PageResult<Map<String, Object>> findList(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Pageable pageable,
+      PageCriteria page) {
+    return coalesce(entity, fields, filters, sort, pageable, page,
+        () -> dynamicRepo.findDynamic(entity, fields, filters, sort, pageable, page));
+  }
+
+  public SingleFlight.Stats getCoalescingStats() {
+    return flights.stats();
+  }
+
+  private PageResult<Map<String, Object>> coalesce(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Pageable pageable,
+      PageCriteria page,
+      Supplier<PageResult<Map<String, Object>>> query) {
+
+    // inside a transaction the caller may read its own uncommitted writes
+    if (!coalesce || TransactionSynchronizationManager.isActualTransactionActive())
+      return query.get();
+
+    Flight flight = new Flight(
+        dynamicRepo.key(entity, fields, filters, sort, pageable, page),
+        dynamicRepo.stamp(entity));
+
+    return flights.execute(flight, query, PageResult::copy);
   }
 
   @Override
@@ -33,9 +94,13 @@ public class DynamicQueryServiceImpl implements DynamicQueryService {
       List<String> fields,
       List<SearchCriteria> filters) {
 
+    // one row and no total: a count would only cost a second query
     Pageable pageable = Pageable.ofSize(1);
+    PageCriteria page = PageCriteria.offset();
+    page.setCountMode(CountMode.NONE);
 
-    PageResult<Map<String, Object>> result = dynamicRepo.findDynamic(entity, fields, filters, null, pageable);
+    PageResult<Map<String, Object>> result = coalesce(entity, fields, filters, null, pageable, page,
+        () -> dynamicRepo.findDynamic(entity, fields, filters, null, pageable, page));
 
     if (result == null || result.getContent().isEmpty()) {
       return null;
@@ -43,4 +108,15 @@ public class DynamicQueryServiceImpl implements DynamicQueryService {
 
     return result.getContent().get(0);
   }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void stream(
+      String entity,
+      List<String> fields,
+      List<SearchCriteria> filters,
+      List<SortCriteria> sort,
+      Consumer<Map<String, Object>> sink) {
+    dynamicRepo.streamDynamic(entity, fields, filters, sort, streamFetchSize, sink);
+  }
 }
@@ -0,0 +1,162 @@
+package com.example.base_pulse.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.graph.Graph;
+import org.springframework.beans.BeanWrapperImpl;
+
+import com.example.base_pulse.utils.ReadOnlyReads;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+// The associations a caller asked for with expand=address,orders. To-one
+// paths go into a load graph on the main query and come back in the same
+// select. Collections are loaded afterwards with one query per collection for
+// the whole page, so a collection join never multiplies the rows and limits
+// stay in SQL.
+public final class FetchPlan {
+
+    public static final FetchPlan NONE = new FetchPlan(new Node(), List.of());
+
+    // owners per collection query, to keep IN lists reasonable
+    private static final int CHUNK = 500;
+
+    private static final class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+    }
+
+    // ownerPath is the to-one path from the root to the collection's owner, "" for the root itself
+    private record CollectionFetch(String ownerPath, String ownerEntity, String attribute) {
+    }
+
+    private final Node graph;
+    private final List<CollectionFetch> collections;
+
+    private FetchPlan(Node graph, List<CollectionFetch> collections) {
+        this.graph = graph;
+        this.collections = collections;
+    }
+
+    // Paths may follow to-one associations to any depth and end in at most
+    // one collection: address, address.country, orders, address.residents.
+    public static FetchPlan of(Metamodel metamodel, Class<?> entityClass, List<String> expand) {
+        if (expand == null || expand.isEmpty()) {
+            return NONE;
+        }
+
+        Node graph = new Node();
+        Map<String, CollectionFetch> collections = new LinkedHashMap<>();
+
+        for (String path : expand) {
+            EntityType<?> type = metamodel.entity(entityClass);
+            Node node = graph;
+            String[] parts = path.split("\\.");
+
+            for (int i = 0; i < parts.length; i++) {
+                Attribute<?, ?> attribute = attribute(type, parts[i], path);
+
+                if (attribute.isCollection()) {
+                    if (i < parts.length - 1) {
+                        throw new UnsupportedQueryException(
+                                "Cannot expand '" + path + "': only the last part of a path can be a collection");
+                    }
+                    String owner = String.join(".", Arrays.copyOf(parts, i));
+                    collections.putIfAbsent(path, new CollectionFetch(owner, type.getName(), parts[i]));
+                } else {
+                    node = node.children.computeIfAbsent(parts[i], k -> new Node());
+                    type = metamodel.entity(((SingularAttribute<?, ?>) attribute).getJavaType());
+                }
+            }
+        }
+
+        return new FetchPlan(graph, List.copyOf(collections.values()));
+    }
+
+    private static Attribute<?, ?> attribute(EntityType<?> type, String name, String path) {
+        Attribute<?, ?> attribute;
+        try {
+            attribute = type.getAttribute(name);
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedQueryException("Cannot expand '" + path + "': " + type.getName()
+                    + " has no field '" + name + "'");
+        }
+        if (!attribute.isAssociation()) {
+            throw new UnsupportedQueryException("Cannot expand '" + path + "': '" + name + "' is not an association");
+        }
+        return attribute;
+    }
+
+    public boolean isEmpty() {
+        return graph.children.isEmpty() && collections.isEmpty();
+    }
+
+    public boolean hasCollections() {
+        return !collections.isEmpty();
+    }
+
+    // load graph for the to-one paths, null when there are none
+    public <T> EntityGraph<T> graph(EntityManager entityManager, Class<T> entityClass) {
+        if (graph.children.isEmpty()) {
+            return null;
+        }
+        EntityGraph<T> root = entityManager.createEntityGraph(entityClass);
+        add((Graph<?>) root, graph);
+        return root;
+    }
+
+    private static void add(Graph<?> graph, Node node) {
+        node.children.forEach((name, child) -> {
+            if (child.children.isEmpty()) {
+                graph.addAttributeNode(name);
+            } else {
+                add(graph.addSubGraph(name), child);
+            }
+        });
+    }
+
+    // Initializes the expanded collections of rows that are managed by the
+    // entity manager: select o from Owner o left join fetch o.items where o in :owners.
+    public void loadCollections(EntityManager entityManager, List<?> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        PersistenceUnitUtil loaded = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        for (CollectionFetch collection : collections) {
+            List<Object> owners = new ArrayList<>(owners(rows, collection.ownerPath()));
+            owners.removeIf(owner -> loaded.isLoaded(owner, collection.attribute()));
+
+            String jpql = "select o from " + collection.ownerEntity() + " o left join fetch o."
+                    + collection.attribute() + " where o in :owners";
+            for (int from = 0; from < owners.size(); from += CHUNK) {
+                ReadOnlyReads.apply(entityManager.createQuery(jpql))
+                        .setParameter("owners", owners.subList(from, Math.min(owners.size(), from + CHUNK)))
+                        .getResultList();
+            }
+        }
+    }
+
+    private static Set<Object> owners(List<?> rows, String path) {
+        Set<Object> owners = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object row : rows) {
+            Object owner = path.isEmpty() ? row : new BeanWrapperImpl(row).getPropertyValue(path);
+            if (owner != null) {
+                owners.add(owner);
+            }
+        }
+        return owners;
+    }
+}
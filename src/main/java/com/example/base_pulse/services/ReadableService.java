@@ -1,23 +1,65 @@
 package com.example.base_pulse.services;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Pageable;
 
-import com.example.base_pulse.entities.BaseEntity;
+import com.example.base_pulse.entities.AbstractBaseEntity;
+import com.example.base_pulse.specifications.PageCriteria;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
 import com.example.base_pulse.utils.PageResult;
 
-public interface ReadableService<T extends BaseEntity> {
+public interface ReadableService<T extends AbstractBaseEntity> {
 
         T findById(Long id);
 
+        // expand: association paths to load along with the entity, e.g. address, orders
+        default T findById(Long id, List<String> expand) {
+                if (expand != null && !expand.isEmpty()) {
+                        throw new UnsupportedQueryException("expand is not supported by " + getClass().getSimpleName());
+                }
+                return findById(id);
+        }
+
         PageResult<T> findAll(
                         Pageable pageable,
                         List<SearchCriteria> filters,
                         List<SortCriteria> sort);
 
+        PageResult<T> findAll(
+                        Pageable pageable,
+                        List<SearchCriteria> filters,
+                        List<SortCriteria> sort,
+                        PageCriteria page);
+
+        default PageResult<T> findAll(
+                        Pageable pageable,
+                        List<SearchCriteria> filters,
+                        List<SortCriteria> sort,
+                        PageCriteria page,
+                        List<String> expand) {
+                if (expand != null && !expand.isEmpty()) {
+                        throw new UnsupportedQueryException("expand is not supported by " + getClass().getSimpleName());
+                }
+                return findAll(pageable, filters, sort, page);
+        }
+
+        // only the given fields, as flat rows; dotted fields follow to-one associations
+        default PageResult<Map<String, Object>> findFields(
+                        Pageable pageable,
+                        List<SearchCriteria> filters,
+                        List<SortCriteria> sort,
+                        PageCriteria page,
+                        List<String> fields) {
+                throw new UnsupportedQueryException("fields is not supported by " + getClass().getSimpleName());
+        }
+
+        default Map<String, Object> findFieldsById(Long id, List<String> fields) {
+                throw new UnsupportedQueryException("fields is not supported by " + getClass().getSimpleName());
+        }
+
         List<T> findAll();
 
         List<T> findAllByIds(List<Long> ids);
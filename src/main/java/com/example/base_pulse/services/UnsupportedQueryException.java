@@ -0,0 +1,14 @@
+package com.example.base_pulse.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// A query option (fields, expand) the service cannot serve: the request is
+// answered with 400 instead of failing as a server error.
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedQueryException extends IllegalArgumentException {
+
+    public UnsupportedQueryException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,26 @@
 package com.example.base_pulse.services;
 
-import com.example.base_pulse.entities.BaseEntity;
+import java.util.List;
 
-public interface UpdatableService<T extends BaseEntity> {
+import org.springframework.http.HttpStatus;
+
+import com.example.base_pulse.entities.AbstractBaseEntity;
+import com.example.base_pulse.utils.BatchResult;
+
+public interface UpdatableService<T extends AbstractBaseEntity> {
     T replace(Long id, T fullEntity);
     T patch(Long id, T partialEntity);
+
+    // each partial entity carries the id it applies to
+    default BatchResult patchAll(List<T> partialEntities) {
+        return BatchResult.each(partialEntities.size(),
+                i -> {
+                    Long id = partialEntities.get(i).getId();
+                    if (id == null) {
+                        throw new IllegalArgumentException("Missing id");
+                    }
+                    return BatchResult.Item.ok(i, patch(id, partialEntities.get(i)).getId(), HttpStatus.OK);
+                },
+                i -> partialEntities.get(i).getId());
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.base_pulse.specifications;
+
+import java.util.Arrays;
+
+public enum CountMode {
+  // always run COUNT(*)
+  EXACT,
+
+  // never count; fetch size + 1 rows and report hasNext
+  NONE,
+
+  // skip the count when the page itself tells the total (last page not full)
+  INFER,
+
+  // count at most cap + 1 rows
+  CAPPED;
+
+  public static CountMode fromMode(String mode) {
+    String normalized = mode
+        .toUpperCase()
+        .replace("-", "_");
+
+    return Arrays.stream(values())
+        .filter(m -> m.name().equals(normalized))
+        .findFirst()
+        .orElseThrow(() -> new InvalidQueryException("Unknown count mode: " + mode));
+  }
+}
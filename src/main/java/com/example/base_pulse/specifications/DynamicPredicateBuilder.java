@@ -1,7 +1,11 @@
 package com.example.base_pulse.specifications;
 
-import com.example.base_pulse.utils.TypeConverter;
+import java.util.ArrayList;
+import java.util.List;
 
+import com.example.base_pulse.metadata.EntityDescriptor;
+
+import jakarta.persistence.criteria.CommonAbstractCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
@@ -11,56 +15,34 @@ public class DynamicPredicateBuilder {
 
   public static Predicate build(SearchCriteria sc, Root<?> root, CriteriaBuilder cb) {
     Path<?> path = resolvePath(root, sc.getField());
-    Class<?> fieldType = path.getJavaType();
-
-    Object value = TypeConverter.parseValue(sc.getValue(), fieldType);
-    Object valueTo = sc.getValueTo() != null
-        ? TypeConverter.parseValue(sc.getValueTo(), fieldType)
-        : null;
-
-    return switch (sc.getOperator()) {
-
-      case EQ -> cb.equal(path, value);
-      case NE -> cb.notEqual(path, value);
-
-      case LT -> cb.lt(path.as(Number.class), (Number) value);
-      case GT -> cb.gt(path.as(Number.class), (Number) value);
-      case LTE -> cb.le(path.as(Number.class), (Number) value);
-      case GTE -> cb.ge(path.as(Number.class), (Number) value);
-
-      case IN -> path.in((Iterable<?>) value);
-      case NIN -> cb.not(path.in((Iterable<?>) value));
-
-      case CONTAINS -> cb.like(
-          cb.lower(path.as(String.class)),
-          "%" + value.toString().toLowerCase() + "%");
-
-      case NOT_CONTAINS -> cb.notLike(
-          cb.lower(path.as(String.class)),
-          "%" + value.toString().toLowerCase() + "%");
-
-      case STARTSWITH -> cb.like(
-          cb.lower(path.as(String.class)),
-          value.toString().toLowerCase() + "%");
-
-      case NOT_STARTSWITH -> cb.notLike(
-          cb.lower(path.as(String.class)),
-          value.toString().toLowerCase() + "%");
-
-      case ENDSWITH -> cb.like(
-          cb.lower(path.as(String.class)),
-          "%" + value.toString().toLowerCase());
-
-      case NOT_ENDSWITH -> cb.notLike(
-          cb.lower(path.as(String.class)),
-          "%" + value.toString().toLowerCase());
+    return FilterPlanCompiler.compile(null, path.getJavaType(), sc.getOperator(), FilterPlanCompiler.arity(sc))
+        .toPredicate(sc, path, cb);
+  }
 
-      case BETWEEN -> cb.between(
-          path.as(Comparable.class),
-          (Comparable) value,
-          (Comparable) valueTo);
-    };
+  public static Predicate build(SearchCriteria sc, EntityDescriptor entity, Root<?> root, CriteriaBuilder cb) {
+    FilterPlan plan = entity.plan(sc);
+    return plan.toPredicate(sc, plan.getAttribute().resolve(root), cb);
+  }
 
+  // all filters ANDed; those on to-many paths go into EXISTS subqueries
+  public static Predicate build(List<SearchCriteria> filters, EntityDescriptor entity, Root<?> root,
+      CommonAbstractCriteria query, CriteriaBuilder cb) {
+    List<Predicate> predicates = new ArrayList<>();
+    ToManyFilters toMany = new ToManyFilters(root, query, cb);
+
+    for (SearchCriteria sc : filters) {
+      FilterPlan plan = entity.plan(sc);
+      if (!plan.getAttribute().isToMany()) {
+        predicates.add(plan.toPredicate(sc, plan.getAttribute().resolve(root), cb));
+        continue;
+      }
+      Predicate exists = toMany.add(plan.getAttribute(), path -> plan.toPredicate(sc, path, cb));
+      if (exists != null)
+        predicates.add(exists);
+    }
+
+    toMany.complete();
+    return cb.and(predicates.toArray(Predicate[]::new));
   }
 
   private static Path<?> resolvePath(Root<?> root, String field) {
@@ -0,0 +1,100 @@
+package com.example.base_pulse.specifications;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import com.example.base_pulse.metadata.AttributeDescriptor;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FilterPlan {
+
+  @FunctionalInterface
+  public interface PredicateFactory {
+    Predicate create(Path<?> path, List<Expression<?>> args, CriteriaBuilder cb);
+  }
+
+  public record Shape(String field, CrudOperator operator, int arity) {
+  }
+
+  private final AttributeDescriptor attribute;
+  private final Shape shape;
+  private final Class<?> parameterType;
+  private final Function<Object, Object> converter;
+  private final PredicateFactory factory;
+
+  // every value becomes a parameter, so the predicate only depends on the shape
+  public Predicate toPredicate(From<?, ?> root, CriteriaBuilder cb, QueryParameters parameters) {
+    return predicate(attribute.resolve(root), cb, parameters);
+  }
+
+  // the same on a path resolved by the caller, e.g. inside an EXISTS subquery
+  public Predicate predicate(Path<?> path, CriteriaBuilder cb, QueryParameters parameters) {
+    List<Expression<?>> args = new ArrayList<>(shape.arity());
+    for (int i = 0; i < shape.arity(); i++)
+      args.add(parameters.next(parameterType));
+
+    return factory.create(path, args, cb);
+  }
+
+  public void bind(SearchCriteria sc, List<Object> values) {
+    int start = values.size();
+    collect(sc, values);
+
+    // pad IN lists up to the bucket by repeating the last value
+    if (values.size() - start < shape.arity()) {
+      Object last = values.get(values.size() - 1);
+      while (values.size() - start < shape.arity())
+        values.add(last);
+    }
+  }
+
+  // converted values without the IN padding
+  public List<Object> values(SearchCriteria sc) {
+    List<Object> values = new ArrayList<>();
+    collect(sc, values);
+    return values;
+  }
+
+  // literal form, for Specifications that Spring Data turns into queries itself
+  public Predicate toPredicate(SearchCriteria sc, Path<?> path, CriteriaBuilder cb) {
+    List<Object> values = new ArrayList<>();
+    collect(sc, values);
+
+    List<Expression<?>> args = new ArrayList<>(values.size());
+    for (Object value : values)
+      args.add(cb.literal(value));
+
+    return factory.create(path, args, cb);
+  }
+
+  private void collect(SearchCriteria sc, List<Object> values) {
+    switch (shape.operator()) {
+      case IN, NIN -> {
+        if (sc.getValue() instanceof Collection<?> raw) {
+          if (raw.isEmpty())
+            throw new IllegalArgumentException("Operator " + shape.operator() + " needs at least one value");
+          for (Object v : raw)
+            values.add(converter.apply(v));
+        } else {
+          values.add(converter.apply(sc.getValue()));
+        }
+      }
+      case BETWEEN -> {
+        values.add(converter.apply(sc.getValue()));
+        values.add(converter.apply(sc.getValueTo()));
+      }
+      default -> values.add(converter.apply(sc.getValue()));
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.base_pulse.specifications;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+import com.example.base_pulse.metadata.AttributeDescriptor;
+import com.example.base_pulse.utils.TypeConverter;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+
+public class FilterPlanCompiler {
+
+  private FilterPlanCompiler() {
+  }
+
+  public static int arity(SearchCriteria sc) {
+    if (sc.getOperator() == CrudOperator.BETWEEN)
+      return 2;
+
+    if (sc.getValue() instanceof Collection<?> values)
+      return bucket(values.size());
+
+    return 1;
+  }
+
+  // next power of two, so IN lists of 5..8 values share one shape
+  public static int bucket(int size) {
+    return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+  }
+
+  public static FilterPlan compile(AttributeDescriptor attribute, CrudOperator operator, int arity) {
+    return compile(attribute, attribute.getJavaType(), operator, arity);
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public static FilterPlan compile(AttributeDescriptor attribute, Class<?> type, CrudOperator operator, int arity) {
+    Function<Object, Object> scalar = TypeConverter.converterFor(type);
+    boolean numeric = Number.class.isAssignableFrom(type) || (type.isPrimitive() && type != boolean.class);
+    FilterPlan.Shape shape = new FilterPlan.Shape(attribute == null ? null : attribute.getPath(), operator, arity);
+
+    return switch (operator) {
+
+      case EQ -> new FilterPlan(attribute, shape, type, scalar,
+          (path, args, cb) -> cb.equal(path, args.get(0)));
+      case NE -> new FilterPlan(attribute, shape, type, scalar,
+          (path, args, cb) -> cb.notEqual(path, args.get(0)));
+
+      case LT -> new FilterPlan(attribute, shape, type, scalar, numeric
+          ? (path, args, cb) -> cb.lt(number(path), (Expression<Number>) args.get(0))
+          : (path, args, cb) -> cb.lessThan(comparable(path), (Expression<Comparable>) args.get(0)));
+      case GT -> new FilterPlan(attribute, shape, type, scalar, numeric
+          ? (path, args, cb) -> cb.gt(number(path), (Expression<Number>) args.get(0))
+          : (path, args, cb) -> cb.greaterThan(comparable(path), (Expression<Comparable>) args.get(0)));
+      case LTE -> new FilterPlan(attribute, shape, type, scalar, numeric
+          ? (path, args, cb) -> cb.le(number(path), (Expression<Number>) args.get(0))
+          : (path, args, cb) -> cb.lessThanOrEqualTo(comparable(path), (Expression<Comparable>) args.get(0)));
+      case GTE -> new FilterPlan(attribute, shape, type, scalar, numeric
+          ? (path, args, cb) -> cb.ge(number(path), (Expression<Number>) args.get(0))
+          : (path, args, cb) -> cb.greaterThanOrEqualTo(comparable(path), (Expression<Comparable>) args.get(0)));
+
+      // one scalar parameter per element; a collection-valued parameter
+      // would keep Hibernate from caching the plan
+      case IN -> new FilterPlan(attribute, shape, type, scalar,
+          (path, args, cb) -> path.in(args.toArray(Expression[]::new)));
+      case NIN -> new FilterPlan(attribute, shape, type, scalar,
+          (path, args, cb) -> cb.not(path.in(args.toArray(Expression[]::new))));
+
+      case CONTAINS -> new FilterPlan(attribute, shape, String.class, pattern("%", "%"),
+          (path, args, cb) -> cb.like(cb.lower(path.as(String.class)), (Expression<String>) args.get(0)));
+      case NOT_CONTAINS -> new FilterPlan(attribute, shape, String.class, pattern("%", "%"),
+          (path, args, cb) -> cb.notLike(cb.lower(path.as(String.class)), (Expression<String>) args.get(0)));
+
+      case STARTSWITH -> new FilterPlan(attribute, shape, String.class, pattern("", "%"),
+          (path, args, cb) -> cb.like(cb.lower(path.as(String.class)), (Expression<String>) args.get(0)));
+      case NOT_STARTSWITH -> new FilterPlan(attribute, shape, String.class, pattern("", "%"),
+          (path, args, cb) -> cb.notLike(cb.lower(path.as(String.class)), (Expression<String>) args.get(0)));
+
+      case ENDSWITH -> new FilterPlan(attribute, shape, String.class, pattern("%", ""),
+          (path, args, cb) -> cb.like(cb.lower(path.as(String.class)), (Expression<String>) args.get(0)));
+      case NOT_ENDSWITH -> new FilterPlan(attribute, shape, String.class, pattern("%", ""),
+          (path, args, cb) -> cb.notLike(cb.lower(path.as(String.class)), (Expression<String>) args.get(0)));
+
+      case BETWEEN -> new FilterPlan(attribute, shape, type, scalar,
+          (path, args, cb) -> cb.between(comparable(path), (Expression<Comparable>) args.get(0),
+              (Expression<Comparable>) args.get(1)));
+    };
+  }
+
+  private static Function<Object, Object> pattern(String prefix, String suffix) {
+    return value -> prefix + value.toString().toLowerCase() + suffix;
+  }
+
+  // an unchecked view, not path.as(): Hibernate 6 renders as() as a SQL cast
+  @SuppressWarnings("unchecked")
+  private static Expression<Number> number(Path<?> path) {
+    return (Expression<Number>) path;
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Expression<Comparable> comparable(Path<?> path) {
+    return (Expression<Comparable>) path;
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.base_pulse.specifications;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Request input a query cannot be built from, such as a malformed cursor.
+// It is the caller's mistake, so it is answered with 400.
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidQueryException extends IllegalArgumentException {
+
+  public InvalidQueryException(String message) {
+    super(message);
+  }
+
+  public InvalidQueryException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.base_pulse.specifications;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Values are kept as JSON and read back as the sort attribute's Java type,
+// so BigDecimal, Instant, UUID and the like come back exactly as they were.
+// Tokens come from the client: a bad one is an InvalidQueryException.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetCursor {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+  private String sort;
+  private List<JsonNode> values;
+
+  public static KeysetCursor of(List<SortCriteria> keys, List<?> rawValues) {
+    List<JsonNode> values = new ArrayList<>(rawValues.size());
+    for (Object v : rawValues)
+      values.add(toNode(v));
+
+    return new KeysetCursor(signature(keys), values);
+  }
+
+  public static String signature(List<SortCriteria> keys) {
+    return keys.stream()
+        .map(k -> k.getField() + ":" + k.getDirection().name())
+        .collect(Collectors.joining(","));
+  }
+
+  public boolean isNull(int index) {
+    JsonNode value = values.get(index);
+    return value == null || value.isNull();
+  }
+
+  // the value at index as the given type, null for a null key
+  public Object value(int index, Class<?> type) {
+    if (isNull(index))
+      return null;
+
+    JsonNode value = values.get(index);
+    try {
+      if (isTimestamp(type))
+        return java.sql.Timestamp.from(Instant.parse(value.asText()));
+      return MAPPER.treeToValue(value, type);
+    } catch (Exception e) {
+      throw new InvalidQueryException("Malformed cursor value for " + type.getSimpleName(), e);
+    }
+  }
+
+  public String encode() {
+    try {
+      byte[] json = MAPPER.writeValueAsBytes(this);
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to encode cursor", e);
+    }
+  }
+
+  public static KeysetCursor decode(String token, List<SortCriteria> keys) {
+    KeysetCursor cursor;
+    try {
+      byte[] json = Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII));
+      cursor = MAPPER.readValue(json, KeysetCursor.class);
+    } catch (Exception e) {
+      throw new InvalidQueryException("Malformed cursor: " + token, e);
+    }
+
+    if (cursor.getValues() == null
+        || cursor.getValues().size() != keys.size()
+        || !signature(keys).equals(cursor.getSort())) {
+      throw new InvalidQueryException("Cursor does not match the requested sort");
+    }
+
+    return cursor;
+  }
+
+  // java.util.Date keys come back from Hibernate as Timestamps, whose
+  // fraction below a millisecond Jackson's date format would drop
+  private static JsonNode toNode(Object value) {
+    if (value instanceof Date date && isTimestamp(value.getClass()))
+      return TextNode.valueOf(date.toInstant().toString());
+    return MAPPER.valueToTree(value);
+  }
+
+  private static boolean isTimestamp(Class<?> type) {
+    return type == Date.class || type == java.sql.Timestamp.class;
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.base_pulse.specifications;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+
+import com.example.base_pulse.metadata.AttributeDescriptor;
+import com.example.base_pulse.metadata.EntityDescriptor;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class KeysetPredicateBuilder {
+
+  public static final String TIE_BREAKER = "id";
+
+  private KeysetPredicateBuilder() {
+  }
+
+  public static List<SortCriteria> withTieBreaker(List<SortCriteria> sort) {
+    List<SortCriteria> keys = new ArrayList<>();
+    if (sort != null)
+      keys.addAll(sort);
+
+    boolean hasId = keys.stream().anyMatch(k -> TIE_BREAKER.equals(k.getField()));
+    if (!hasId)
+      keys.add(new SortCriteria(TIE_BREAKER, Sort.Direction.ASC));
+
+    return keys;
+  }
+
+  // null cursor values change the predicate, so they are part of the query shape
+  public static List<Boolean> nulls(KeysetCursor cursor) {
+    List<Boolean> nulls = new ArrayList<>(cursor.getValues().size());
+    for (int i = 0; i < cursor.getValues().size(); i++)
+      nulls.add(cursor.isNull(i));
+    return nulls;
+  }
+
+  // ORDER BY for the keys. NULLs sort low on every database: nullable keys
+  // get an explicit NULLS FIRST (ASC) / NULLS LAST (DESC), since PostgreSQL
+  // and Oracle default to the opposite. NOT NULL keys keep the plain form so
+  // they can still walk an ordinary index.
+  public static List<Order> orders(List<SortCriteria> keys, EntityDescriptor entity, Root<?> root,
+      CriteriaBuilder cb) {
+    List<Order> orders = new ArrayList<>();
+    if (keys == null)
+      return orders;
+
+    HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+    for (SortCriteria key : keys) {
+      AttributeDescriptor attribute = entity.attribute(key.getField());
+      Path<?> path = attribute.resolve(root);
+      boolean ascending = key.getDirection().isAscending();
+
+      if (!attribute.isOptional())
+        orders.add(ascending ? cb.asc(path) : cb.desc(path));
+      else
+        orders.add(ascending ? hcb.asc(path, true) : hcb.desc(path, false));
+    }
+    return orders;
+  }
+
+  // (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... with ">" flipped for DESC keys.
+  // NULLs sort low, matching the NULLS FIRST / NULLS LAST that orders() emits.
+  public static Predicate build(List<SortCriteria> keys, List<Boolean> nulls, EntityDescriptor entity,
+      Root<?> root, CriteriaBuilder cb, QueryParameters parameters) {
+    List<Predicate> branches = new ArrayList<>();
+    List<Predicate> equalities = new ArrayList<>();
+
+    for (int i = 0; i < keys.size(); i++) {
+      SortCriteria key = keys.get(i);
+      AttributeDescriptor attribute = entity.attribute(key.getField());
+      Path<?> path = attribute.resolve(root);
+      Expression<?> value = nulls.get(i) ? null : parameters.next(attribute.getJavaType());
+
+      List<Predicate> branch = new ArrayList<>(equalities);
+      branch.add(after(path, value, key.getDirection().isAscending(), attribute.isOptional(), cb));
+      branches.add(cb.and(branch.toArray(Predicate[]::new)));
+
+      equalities.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+    }
+
+    return cb.or(branches.toArray(Predicate[]::new));
+  }
+
+  public static void bind(List<SortCriteria> keys, KeysetCursor cursor, EntityDescriptor entity,
+      List<Object> values) {
+    for (int i = 0; i < keys.size(); i++) {
+      if (!cursor.isNull(i))
+        values.add(cursor.value(i, entity.attribute(keys.get(i).getField()).getJavaType()));
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static Predicate after(Path<?> path, Expression<?> value, boolean ascending, boolean nullable,
+      CriteriaBuilder cb) {
+    Expression<Comparable> expr = (Expression<Comparable>) path;
+    Expression<Comparable> bound = (Expression<Comparable>) value;
+
+    if (value == null)
+      return ascending ? cb.isNotNull(path) : cb.disjunction();
+
+    if (ascending)
+      return cb.greaterThan(expr, bound);
+
+    return nullable
+        ? cb.or(cb.lessThan(expr, bound), cb.isNull(path))
+        : cb.lessThan(expr, bound);
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.base_pulse.specifications;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCriteria {
+  private PageMode mode = PageMode.OFFSET;
+  private String cursor;
+
+  // null falls back to the entity's @PageCount, then EXACT
+  private CountMode countMode;
+  private Integer countCap;
+
+  public static PageCriteria offset() {
+    return new PageCriteria(PageMode.OFFSET, null, null, null);
+  }
+
+  public static PageCriteria keyset(String cursor) {
+    return new PageCriteria(PageMode.KEYSET, cursor, null, null);
+  }
+
+  public boolean isKeyset() {
+    return mode == PageMode.KEYSET;
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.base_pulse.specifications;
+
+import java.util.Arrays;
+
+public enum PageMode {
+  OFFSET,
+  KEYSET;
+
+  public static PageMode fromMode(String mode) {
+    String normalized = mode
+        .toUpperCase()
+        .replace("-", "_");
+
+    return Arrays.stream(values())
+        .filter(m -> m.name().equals(normalized))
+        .findFirst()
+        .orElseThrow(() -> new InvalidQueryException("Unknown paging mode: " + mode));
+  }
+}
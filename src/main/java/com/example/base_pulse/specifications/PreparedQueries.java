@@ -0,0 +1,168 @@
+package com.example.base_pulse.specifications;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaExpression;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.base_pulse.metadata.EntityDescriptor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class PreparedQueries {
+
+  private record CountShape(List<FilterPlan.Shape> filters, boolean capped) {
+  }
+
+  private PreparedQueries() {
+  }
+
+  public static List<FilterPlan> plans(EntityDescriptor entity, List<SearchCriteria> filters) {
+    if (filters == null || filters.isEmpty())
+      return List.of();
+
+    List<FilterPlan> plans = new ArrayList<>(filters.size());
+    for (SearchCriteria sc : filters)
+      plans.add(entity.plan(sc));
+    return plans;
+  }
+
+  public static List<FilterPlan.Shape> shapes(List<FilterPlan> plans) {
+    return plans.stream().map(FilterPlan::getShape).toList();
+  }
+
+  // filters on to-many paths are grouped into one EXISTS per collection, in
+  // the place of the first of them
+  public static Predicate[] where(List<FilterPlan> plans, Root<?> root, AbstractQuery<?> query, CriteriaBuilder cb,
+      QueryParameters parameters) {
+    List<Predicate> predicates = new ArrayList<>(plans.size());
+    ToManyFilters toMany = null;
+
+    for (FilterPlan plan : plans) {
+      if (!plan.getAttribute().isToMany()) {
+        predicates.add(plan.toPredicate(root, cb, parameters));
+        continue;
+      }
+      if (toMany == null)
+        toMany = new ToManyFilters(root, query, cb);
+      Predicate exists = toMany.add(plan.getAttribute(), path -> plan.predicate(path, cb, parameters));
+      if (exists != null)
+        predicates.add(exists);
+    }
+
+    if (toMany != null)
+      toMany.complete();
+    return predicates.toArray(Predicate[]::new);
+  }
+
+  public static List<Object> bind(List<FilterPlan> plans, List<SearchCriteria> filters) {
+    List<Object> values = new ArrayList<>();
+    for (int i = 0; i < plans.size(); i++)
+      plans.get(i).bind(filters.get(i), values);
+    return values;
+  }
+
+  public static long count(EntityManager em, EntityDescriptor entity, List<SearchCriteria> filters) {
+    List<FilterPlan> plans = plans(entity, filters);
+
+    PreparedQuery<Long> prepared = entity.prepared(new CountShape(shapes(plans), false), () -> {
+      CriteriaBuilder cb = em.getCriteriaBuilder();
+      QueryParameters parameters = new QueryParameters(cb);
+      CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+      Root<?> root = countQuery.from(entity.getJavaType());
+
+      countQuery.select(cb.count(root));
+      if (!plans.isEmpty())
+        countQuery.where(where(plans, root, countQuery, cb, parameters));
+
+      return new PreparedQuery<>(countQuery, parameters.list());
+    });
+
+    return prepared.create(em, bind(plans, filters), entity.getQueryPolicy().getTimeoutMs()).getSingleResult();
+  }
+
+  // select count(*) from (select id from ... where ... fetch first :limit rows)
+  public static long countUpTo(EntityManager em, EntityDescriptor entity, List<SearchCriteria> filters,
+      long limit) {
+    List<FilterPlan> plans = plans(entity, filters);
+
+    PreparedQuery<Long> prepared = entity.prepared(new CountShape(shapes(plans), true), () -> {
+      HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) em.getCriteriaBuilder();
+      QueryParameters parameters = new QueryParameters(cb);
+      JpaCriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+
+      JpaSubQuery<Object> sub = countQuery.subquery(Object.class);
+      Root<?> subRoot = sub.from(entity.getJavaType());
+      Path<Object> id = subRoot.get("id");
+      id.alias("id");
+      sub.select(id);
+
+      if (!plans.isEmpty())
+        sub.where(where(plans, subRoot, sub, cb, parameters));
+
+      // the limit is bound last
+      sub.fetch((JpaExpression<Long>) parameters.next(Long.class));
+
+      countQuery.select(cb.count(countQuery.from(sub).get("id")));
+
+      return new PreparedQuery<>(countQuery, parameters.list());
+    });
+
+    List<Object> values = bind(plans, filters);
+    values.add(limit);
+
+    return prepared.create(em, values, entity.getQueryPolicy().getTimeoutMs()).getSingleResult();
+  }
+
+  // the same two counts for an opaque Specification, whose tree is built per call
+  public static long count(EntityManager em, EntityDescriptor entity, Specification<?> spec) {
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+    CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+    Root<?> root = countQuery.from(entity.getJavaType());
+
+    countQuery.select(cb.count(root));
+    Predicate predicate = restrict(spec, root, countQuery, cb);
+    if (predicate != null)
+      countQuery.where(predicate);
+
+    return new PreparedQuery<>(countQuery, List.of())
+        .create(em, List.of(), entity.getQueryPolicy().getTimeoutMs()).getSingleResult();
+  }
+
+  public static long countUpTo(EntityManager em, EntityDescriptor entity, Specification<?> spec, long limit) {
+    HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) em.getCriteriaBuilder();
+    JpaCriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+
+    JpaSubQuery<Object> sub = countQuery.subquery(Object.class);
+    Root<?> subRoot = sub.from(entity.getJavaType());
+    Path<Object> id = subRoot.get("id");
+    id.alias("id");
+    sub.select(id);
+
+    Predicate predicate = restrict(spec, subRoot, countQuery, cb);
+    if (predicate != null)
+      sub.where(predicate);
+
+    sub.fetch(limit);
+
+    countQuery.select(cb.count(countQuery.from(sub).get("id")));
+
+    return new PreparedQuery<>(countQuery, List.of())
+        .create(em, List.of(), entity.getQueryPolicy().getTimeoutMs()).getSingleResult();
+  }
+
+  @SuppressWarnings("unchecked")
+  public static Predicate restrict(Specification<?> spec, Root<?> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+    return spec == null ? null : ((Specification<Object>) spec).toPredicate((Root<Object>) root, query, cb);
+  }
+}
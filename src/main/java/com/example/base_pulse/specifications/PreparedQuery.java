@@ -0,0 +1,81 @@
+package com.example.base_pulse.specifications;
+
+import java.util.List;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+import com.example.base_pulse.utils.ReadOnlyReads;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.ParameterExpression;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A criteria tree whose values are all parameters. Reusing the same instance
+// for every request of one shape is what lets Hibernate's plan cache hit.
+@Getter
+@AllArgsConstructor
+public class PreparedQuery<R> {
+
+  private final CriteriaQuery<R> criteria;
+  private final List<ParameterExpression<?>> parameters;
+  private final List<String> aliases;
+
+  public PreparedQuery(CriteriaQuery<R> criteria, List<ParameterExpression<?>> parameters) {
+    this(criteria, parameters, List.of());
+  }
+
+  public TypedQuery<R> create(EntityManager em, List<Object> values) {
+    return create(em, values, 0);
+  }
+
+  // timeoutMs > 0 lets the database cancel the statement once it runs that long
+  @SuppressWarnings("unchecked")
+  public TypedQuery<R> create(EntityManager em, List<Object> values, int timeoutMs) {
+    if (values.size() != parameters.size())
+      throw new IllegalStateException(
+          "Expected " + parameters.size() + " parameter values but got " + values.size());
+
+    TypedQuery<R> query = ReadOnlyReads.apply(createQuery(em));
+    query.setHint(HibernateHints.HINT_QUERY_PLAN_CACHEABLE, true);
+    if (timeoutMs > 0)
+      query.setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, timeoutMs);
+
+    for (int i = 0; i < values.size(); i++)
+      query.setParameter((Parameter<Object>) parameters.get(i), values.get(i));
+
+    return query;
+  }
+
+  // Under JPA bootstrap Hibernate copies a criteria tree in createQuery, and a
+  // copy never hits the plan cache. Copying is switched off on the session for
+  // this call only; the trees here are never changed once prepared.
+  private TypedQuery<R> createQuery(EntityManager em) {
+    SharedSessionContractImplementor session = session(em);
+    if (session == null)
+      return em.createQuery(criteria);
+
+    boolean copyTree = session.isCriteriaCopyTreeEnabled();
+    session.setCriteriaCopyTreeEnabled(false);
+    try {
+      return em.createQuery(criteria);
+    } finally {
+      session.setCriteriaCopyTreeEnabled(copyTree);
+    }
+  }
+
+  // null for a shared EntityManager with no session bound to the thread; the
+  // query then runs on a temporary one and its tree is copied as usual
+  private static SharedSessionContractImplementor session(EntityManager em) {
+    try {
+      return em.unwrap(SharedSessionContractImplementor.class);
+    } catch (IllegalStateException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.base_pulse.specifications;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.util.ClassUtils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.ParameterExpression;
+
+public class QueryParameters {
+
+  private final CriteriaBuilder cb;
+  private final List<ParameterExpression<?>> parameters = new ArrayList<>();
+
+  public QueryParameters(CriteriaBuilder cb) {
+    this.cb = cb;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> ParameterExpression<T> next(Class<T> type) {
+    ParameterExpression<T> parameter = cb.parameter((Class<T>) ClassUtils.resolvePrimitiveIfNecessary(type));
+    parameters.add(parameter);
+    return parameter;
+  }
+
+  public List<ParameterExpression<?>> list() {
+    return List.copyOf(parameters);
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.base_pulse.specifications;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.example.base_pulse.metadata.AttributeDescriptor;
+
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+// Filters on to-many paths become correlated EXISTS subqueries instead of
+// joins, so rows are never multiplied and neither pages nor counts need
+// DISTINCT. Every filter on the same collection goes into one subquery:
+// orders.status = PAID and orders.total > 100 match customers with one order
+// that is both. The subqueries hang off the statement being built, a select
+// or a bulk delete.
+public class ToManyFilters {
+
+  private record Group(Subquery<Integer> sub, Root<?> correlated, List<Predicate> predicates) {
+  }
+
+  private final Root<?> root;
+  private final CommonAbstractCriteria query;
+  private final CriteriaBuilder cb;
+  private final Map<String, Group> groups = new LinkedHashMap<>();
+
+  public ToManyFilters(Root<?> root, CommonAbstractCriteria query, CriteriaBuilder cb) {
+    this.root = root;
+    this.query = query;
+    this.cb = cb;
+  }
+
+  // The EXISTS predicate the first time a collection comes up, null after
+  // that. Predicates are built in call order, so parameters stay in the
+  // order their values are bound.
+  public Predicate add(AttributeDescriptor attribute, Function<Path<?>, Predicate> predicate) {
+    Group group = groups.get(attribute.getCollection());
+    Predicate exists = null;
+
+    if (group == null) {
+      Subquery<Integer> sub = query.subquery(Integer.class);
+      group = new Group(sub, correlate(sub, root), new ArrayList<>());
+      sub.select(cb.literal(1));
+      groups.put(attribute.getCollection(), group);
+      exists = cb.exists(sub);
+    }
+
+    group.predicates().add(predicate.apply(attribute.resolveElement(group.correlated())));
+    return exists;
+  }
+
+  // sets each subquery's WHERE once all filters are in
+  public void complete() {
+    for (Group group : groups.values()) {
+      group.sub().where(group.predicates().toArray(Predicate[]::new));
+    }
+  }
+
+  private static <X> Root<X> correlate(Subquery<?> sub, Root<X> root) {
+    return sub.correlate(root);
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.base_pulse.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+
+// Where the library runs its own parallel work. With
+// spring.threads.virtual.enabled on Java 21+ every task gets a virtual
+// thread; otherwise a fixed pool of daemon threads
+// (base-pulse.executor.threads) takes them, with at most
+// base-pulse.executor.queue-capacity waiting. A task that finds the queue
+// full is rejected with TaskRejectedException, and callers fall back to
+// doing the work themselves. Not an Executor bean on purpose, so Spring Boot
+// still creates its applicationTaskExecutor.
+@Component
+public class BackgroundTasks implements DisposableBean {
+
+    private final boolean virtual;
+    private final AsyncTaskExecutor executor;
+    private final ThreadPoolExecutor pool;
+
+    public BackgroundTasks(Environment environment, @Value("${base-pulse.executor.threads:8}") int threads,
+            @Value("${base-pulse.executor.queue-capacity:32}") int queueCapacity) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        if (virtual) {
+            this.pool = null;
+            this.executor = new VirtualThreadTaskExecutor("base-pulse-");
+        } else {
+            AtomicInteger count = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread thread = new Thread(r, "base-pulse-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.pool.allowCoreThreadTimeOut(true);
+            this.executor = new TaskExecutorAdapter(pool);
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        return executor.submitCompletable(task);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
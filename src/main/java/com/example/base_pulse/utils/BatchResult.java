@@ -0,0 +1,99 @@
+package com.example.base_pulse.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+@Data
+@Slf4j
+public class BatchResult {
+  private int total;
+  private int succeeded;
+  private int failed;
+  private List<Item> items;
+
+  public BatchResult(int total) {
+    this.total = total;
+    this.items = new ArrayList<>(total);
+  }
+
+  // Runs the items one after another, a failure only failing its own item.
+  // This is the fallback for services without BaseServiceImpl's chunked
+  // transactions.
+  public static BatchResult each(int size, IntFunction<Item> operation, IntFunction<Long> idOf) {
+    BatchResult result = new BatchResult(size);
+    for (int i = 0; i < size; i++) {
+      try {
+        result.add(operation.apply(i));
+      } catch (RuntimeException e) {
+        result.add(Item.failed(i, idOf.apply(i), e));
+      }
+    }
+    return result;
+  }
+
+  public void add(Item item) {
+    items.add(item);
+    if (item.getError() == null)
+      succeeded++;
+    else
+      failed++;
+  }
+
+  // one entry per input element, in input order
+  @Data
+  @AllArgsConstructor
+  public static class Item {
+    private int index;
+    private Long id;
+    private int status;
+    private String error;
+
+    public static Item ok(int index, Long id, HttpStatus status) {
+      return new Item(index, id, status.value(), null);
+    }
+
+    // The client gets a fixed message per status; the exception text can hold
+    // constraint names and SQL, so it only goes to the log.
+    public static Item failed(int index, Long id, Throwable error) {
+      HttpStatus status = statusOf(error);
+      if (status.is5xxServerError())
+        log.error("Batch item {} (id {}) failed", index, id, error);
+      else
+        log.debug("Batch item {} (id {}) rejected: {}", index, id, error.toString());
+      return new Item(index, id, status.value(), messageOf(status, id));
+    }
+
+    private static String messageOf(HttpStatus status, Long id) {
+      return switch (status) {
+        case NOT_FOUND -> id != null ? "Entity with id " + id + " not found" : "Entity not found";
+        case BAD_REQUEST -> "Invalid item";
+        case CONFLICT -> "Conflicts with existing data";
+        default -> "Internal error";
+      };
+    }
+
+    private static HttpStatus statusOf(Throwable error) {
+      for (Throwable e = error; e != null; e = e.getCause()) {
+        if (e instanceof EntityNotFoundException)
+          return HttpStatus.NOT_FOUND;
+        if (e instanceof IllegalArgumentException)
+          return HttpStatus.BAD_REQUEST;
+        if (e instanceof DataIntegrityViolationException || e instanceof ConstraintViolationException)
+          return HttpStatus.CONFLICT;
+        if (e.getCause() == e)
+          break;
+      }
+      return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+  }
+}
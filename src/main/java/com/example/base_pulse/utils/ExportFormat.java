@@ -0,0 +1,50 @@
+package com.example.base_pulse.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public enum ExportFormat {
+    // one JSON object per line
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+
+    // header row with the field names, then one line per row
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public RowWriter writer(OutputStream out, List<String> fields, ObjectMapper mapper) throws IOException {
+        return switch (this) {
+            case NDJSON -> new RowWriter.Ndjson(out, mapper);
+            case CSV -> new RowWriter.Csv(out, fields);
+        };
+    }
+
+    public static ExportFormat fromFormat(String format) {
+        String normalized = format.toUpperCase();
+
+        return Arrays.stream(values())
+                .filter(f -> f.name().equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown export format: " + format));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.base_pulse.utils;
+
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+
+import com.example.base_pulse.entities.annotations.PageCount;
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.metrics.RequestTimings;
+import com.example.base_pulse.specifications.CountMode;
+import com.example.base_pulse.specifications.PageCriteria;
+
+public class PageCounter {
+
+    public static final int DEFAULT_CAP = 1000;
+
+    private PageCounter() {
+    }
+
+    public static CountMode resolveMode(PageCriteria page, EntityDescriptor entity) {
+        if (page != null && page.getCountMode() != null) {
+            return page.getCountMode();
+        }
+
+        PageCount annotation = entity.getPageCount();
+        return annotation != null ? annotation.mode() : CountMode.EXACT;
+    }
+
+    public static int resolveCap(PageCriteria page, EntityDescriptor entity) {
+        if (page != null && page.getCountCap() != null) {
+            return page.getCountCap();
+        }
+
+        PageCount annotation = entity.getPageCount();
+        return annotation != null ? annotation.cap() : DEFAULT_CAP;
+    }
+
+    // Fills total/totalExact/countMode on a page whose content and hasNext are
+    // already set. offset is -1 when unknown (keyset pages after the first).
+    public static void count(
+            PageResult<?> page,
+            CountMode mode,
+            int cap,
+            long offset,
+            LongSupplier exactCount,
+            LongUnaryOperator cappedCount) {
+
+        page.setCountMode(mode);
+
+        if (mode == CountMode.NONE) {
+            page.setTotal(-1);
+            page.setTotalExact(false);
+            return;
+        }
+
+        if (mode != CountMode.EXACT && !page.isHasNext() && offset >= 0
+                && (offset == 0 || !page.getContent().isEmpty())) {
+            page.setTotal(offset + page.getContent().size());
+            page.setTotalExact(true);
+            return;
+        }
+
+        if (mode == CountMode.CAPPED) {
+            long counted;
+            try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.COUNT)) {
+                counted = cappedCount.applyAsLong(cap + 1L);
+            }
+            page.setTotal(Math.min(counted, cap));
+            page.setTotalExact(counted <= cap);
+            return;
+        }
+
+        try (RequestTimings.Phase phase = RequestTimings.phase(RequestTimings.COUNT)) {
+            page.setTotal(exactCount.getAsLong());
+        }
+        page.setTotalExact(true);
+    }
+}
@@ -1,12 +1,40 @@
 package com.example.base_pulse.utils;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
+import java.util.ArrayList;
 import java.util.List;
 
+import com.example.base_pulse.specifications.CountMode;
+
 @Data
-@AllArgsConstructor
 public class PageResult<T> {
   private List<T> content;
+
+  // -1 when the count was skipped (CountMode.NONE)
   private long total;
+  private String nextCursor;
+
+  private CountMode countMode = CountMode.EXACT;
+  private boolean totalExact = true;
+  private boolean hasNext;
+
+  public PageResult(List<T> content, long total) {
+    this(content, total, null);
+  }
+
+  public PageResult(List<T> content, long total, String nextCursor) {
+    this.content = content;
+    this.total = total;
+    this.nextCursor = nextCursor;
+  }
+
+  // same rows in a list of its own, so callers sharing one result cannot
+  // step on each other's content or header
+  public PageResult<T> copy() {
+    PageResult<T> copy = new PageResult<>(new ArrayList<>(content), total, nextCursor);
+    copy.setCountMode(countMode);
+    copy.setTotalExact(totalExact);
+    copy.setHasNext(hasNext);
+    return copy;
+  }
 }
@@ -2,7 +2,11 @@ package com.example.base_pulse.utils;
 
 import org.springframework.data.domain.Sort;
 
+import com.example.base_pulse.specifications.CountMode;
 import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.InvalidQueryException;
+import com.example.base_pulse.specifications.PageCriteria;
+import com.example.base_pulse.specifications.PageMode;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
 
@@ -133,6 +137,75 @@ public class QueryCriteriaBuilder {
         return new ArrayList<>(sortMap.values());
     }
 
+    // Keyset is the default; offset paging only when asked for with
+    // paging=offset or an explicit page number.
+    public static PageCriteria parsePageFromParams(Map<String, String> params) {
+        String mode = params.get("paging");
+        String cursor = params.get("cursor");
+
+        PageCriteria page;
+        if (mode != null && !mode.isBlank()) {
+            page = PageMode.fromMode(mode) == PageMode.KEYSET
+                    ? PageCriteria.keyset(blankToNull(cursor))
+                    : PageCriteria.offset();
+        } else if (cursor == null && params.containsKey("page")) {
+            page = PageCriteria.offset();
+        } else {
+            page = PageCriteria.keyset(blankToNull(cursor));
+        }
+
+        String count = blankToNull(params.get("count"));
+        if (count != null) {
+            page.setCountMode(CountMode.fromMode(count));
+        }
+
+        String countCap = blankToNull(params.get("countCap"));
+        if (countCap != null) {
+            page.setCountCap(parseCountCap(countCap));
+        }
+
+        return page;
+    }
+
+    private static int parseCountCap(String value) {
+        int cap;
+        try {
+            cap = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidQueryException("countCap must be a number: " + value, e);
+        }
+        if (cap < 1) {
+            throw new InvalidQueryException("countCap must be at least 1");
+        }
+        return cap;
+    }
+
+    // expand=address,orders -> [address, orders]
+    public static List<String> parseExpand(String expand) {
+        return parseList(expand);
+    }
+
+    // fields=id,address.city -> [id, address.city]; id alone when empty
+    public static List<String> parseFields(String fields) {
+        List<String> parsed = parseList(fields);
+        return parsed.isEmpty() ? List.of("id") : parsed;
+    }
+
+    private static List<String> parseList(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
     public static Sort buildSort(List<SortCriteria> sortCriteriaList) {
         if (sortCriteriaList == null || sortCriteriaList.isEmpty()) {
             return Sort.unsorted();
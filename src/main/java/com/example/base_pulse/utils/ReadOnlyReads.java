@@ -0,0 +1,40 @@
+package com.example.base_pulse.utils;
+
+import java.util.Map;
+
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.Query;
+
+// Hints for reads that never write back. Entities come back read-only, so the
+// session keeps no snapshot of each row for dirty checking, and the query
+// does not flush first. They apply outside a transaction or in a read-only
+// one; inside a writing transaction callers may change what they read.
+public final class ReadOnlyReads {
+
+    private static final Map<String, Object> HINTS = Map.of(
+            HibernateHints.HINT_READ_ONLY, true,
+            HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+
+    private ReadOnlyReads() {
+    }
+
+    public static boolean applies() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    public static <Q extends Query> Q apply(Q query) {
+        if (applies()) {
+            HINTS.forEach(query::setHint);
+        }
+        return query;
+    }
+
+    // for EntityManager.find
+    public static Map<String, Object> hints() {
+        return applies() ? HINTS : Map.of();
+    }
+}
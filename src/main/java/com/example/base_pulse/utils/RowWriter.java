@@ -0,0 +1,95 @@
+package com.example.base_pulse.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+// Writes rows as they come; nothing is held beyond the current row and the
+// writer's buffer.
+public interface RowWriter {
+
+    void write(Map<String, Object> row) throws IOException;
+
+    void finish() throws IOException;
+
+    class Ndjson implements RowWriter {
+        private final Writer out;
+        private final ObjectWriter json;
+
+        public Ndjson(OutputStream out, ObjectMapper mapper) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.json = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            json.writeValue(out, row);
+            out.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    class Csv implements RowWriter {
+        private final Writer out;
+        private final List<String> fields;
+
+        public Csv(OutputStream out, List<String> fields) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.fields = fields;
+            line(fields);
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = row.get(fields.get(i));
+                if (value != null) {
+                    out.write(escape(value.toString()));
+                }
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+
+        private void line(List<String> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(escape(values.get(i)));
+            }
+            out.write("\r\n");
+        }
+
+        // RFC 4180: quote when the value holds a separator, quote or line break
+        private static String escape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return '"' + value.replace("\"", "\"\"") + '"';
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.base_pulse.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+import jakarta.persistence.Entity;
+
+// Leaves lazy associations that were not loaded out of entity JSON instead
+// of loading them one row at a time while the response is written. What a
+// response carries is then what the query fetched, e.g. through expand=...
+public class SkipUnloadedModule extends SimpleModule {
+
+    public SkipUnloadedModule() {
+        super("base-pulse-skip-unloaded");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription description,
+                    List<BeanPropertyWriter> properties) {
+                if (!description.getClassInfo().hasAnnotation(Entity.class)) {
+                    return properties;
+                }
+                List<BeanPropertyWriter> changed = new ArrayList<>(properties.size());
+                for (BeanPropertyWriter property : properties) {
+                    changed.add(isAssociation(property.getType()) ? new SkipUnloaded(property) : property);
+                }
+                return changed;
+            }
+        });
+    }
+
+    private static boolean isAssociation(JavaType type) {
+        return type.isContainerType() || type.getRawClass().isAnnotationPresent(Entity.class);
+    }
+
+    private static final class SkipUnloaded extends BeanPropertyWriter {
+
+        SkipUnloaded(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider provider) throws Exception {
+            Object value = get(bean);
+            if (!Hibernate.isInitialized(value)) {
+                return;
+            }
+            // a loaded proxy is written as the entity behind it
+            if (value instanceof HibernateProxy) {
+                provider.defaultSerializeField(getName(), Hibernate.unproxy(value), gen);
+                return;
+            }
+            super.serializeAsField(bean, gen, provider);
+        }
+    }
+}
@@ -2,42 +2,63 @@ package com.example.base_pulse.utils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.function.Function;
 
 public class TypeConverter {
 
+    private static final ClassValue<Function<Object, Object>> CONVERTERS = new ClassValue<>() {
+        @Override
+        protected Function<Object, Object> computeValue(Class<?> type) {
+            Function<String, Object> parser = parserFor(type);
+            return value -> {
+                if (value == null)
+                    return null;
+
+                if (type.isInstance(value)) {
+                    return value;
+                }
+
+                return parser.apply(value.toString());
+            };
+        }
+    };
+
     private TypeConverter() {
     }
 
     public static Object parseValue(Object value, Class<?> type) {
-        if (value == null)
-            return null;
-
-        if (type.isInstance(value)) {
-            return value;
-        }
+        return CONVERTERS.get(type).apply(value);
+    }
 
-        String str = value.toString();
+    // the branch for a type is picked once; callers keep the function
+    public static Function<Object, Object> converterFor(Class<?> type) {
+        return CONVERTERS.get(type);
+    }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Function<String, Object> parserFor(Class<?> type) {
         if (type == String.class)
-            return str;
+            return str -> str;
         if (type == Integer.class || type == int.class)
-            return Integer.parseInt(str);
+            return Integer::parseInt;
         if (type == Long.class || type == long.class)
-            return Long.parseLong(str);
+            return Long::parseLong;
         if (type == Boolean.class || type == boolean.class)
-            return Boolean.parseBoolean(str);
+            return Boolean::parseBoolean;
         if (type == Double.class || type == double.class)
-            return Double.parseDouble(str);
+            return Double::parseDouble;
         if (type == LocalDate.class)
-            return LocalDate.parse(str);
+            return LocalDate::parse;
         if (type == LocalDateTime.class)
-            return LocalDateTime.parse(str);
+            return LocalDateTime::parse;
 
         // Enum support
         if (type.isEnum()) {
-            return Enum.valueOf((Class<Enum>) type, str.toUpperCase());
+            return str -> Enum.valueOf((Class<Enum>) type, str.toUpperCase());
         }
 
-        throw new IllegalArgumentException("Unsupported field type: " + type.getName());
+        return str -> {
+            throw new IllegalArgumentException("Unsupported field type: " + type.getName());
+        };
     }
 }
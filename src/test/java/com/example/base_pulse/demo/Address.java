@@ -0,0 +1,20 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.entities.BaseEntity;
+import com.example.base_pulse.entities.annotations.QueryLimits;
+
+import jakarta.persistence.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@QueryLimits(maxPageSize = 100, filterable = { "id", "city" }, sortable = { "city" })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Address extends BaseEntity {
+    private String city;
+}
@@ -0,0 +1,152 @@
+package com.example.base_pulse.demo;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:batch",
+                "base-pulse.batch.chunk-size=3",
+                "base-pulse.limits.max-batch-size=5" })
+@AutoConfigureMockMvc
+public class BatchTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private TagRepository tagRepository;
+
+        @Autowired
+        private ObjectMapper mapper;
+
+        @BeforeEach
+        void setup() {
+                tagRepository.deleteAll();
+                tagRepository.save(new Tag("taken"));
+        }
+
+        @Test
+        void failingItem_rollsBackItsChunk_andTheRestIsReplayed() throws Exception {
+                JsonNode result = send(post("/tags/batch"), List.of(
+                                new Tag("a"), new Tag("taken"), new Tag("b"), new Tag("c"), new Tag("d")), 207);
+
+                assertThat(result.get("total").asInt()).isEqualTo(5);
+                assertThat(result.get("succeeded").asInt()).isEqualTo(4);
+                assertThat(result.get("failed").asInt()).isEqualTo(1);
+                assertThat(statuses(result)).containsExactly(201, 409, 201, 201, 201);
+
+                // the other two items of the failed chunk were saved on replay
+                assertThat(tagRepository.findAll()).extracting(Tag::getCode)
+                                .containsExactlyInAnyOrder("taken", "a", "b", "c", "d");
+                for (JsonNode item : result.get("items")) {
+                        if (item.get("status").asInt() == 201) {
+                                assertThat(tagRepository.existsById(item.get("id").asLong())).isTrue();
+                        }
+                }
+        }
+
+        @Test
+        void failedItems_carryASafeMessage() throws Exception {
+                JsonNode result = send(post("/tags/batch"), List.of(new Tag("taken")), 207);
+                JsonNode item = result.get("items").get(0);
+
+                assertThat(item.get("status").asInt()).isEqualTo(409);
+                assertThat(item.get("error").asText()).isEqualTo("Conflicts with existing data");
+                assertThat(result.toString()).doesNotContainIgnoringCase("constraint")
+                                .doesNotContainIgnoringCase("insert")
+                                .doesNotContainIgnoringCase("tag(");
+        }
+
+        @Test
+        void patchBatch_reportsEachItem() throws Exception {
+                Long taken = tagRepository.findAll().get(0).getId();
+                Tag renamed = new Tag("renamed");
+                renamed.setId(taken);
+                Tag missing = new Tag("x");
+                missing.setId(999_999L);
+
+                JsonNode result = send(patch("/tags/batch"), List.of(renamed, missing, new Tag("no-id")), 207);
+
+                assertThat(statuses(result)).containsExactly(200, 404, 400);
+                assertThat(result.get("items").get(1).get("error").asText())
+                                .isEqualTo("Entity with id 999999 not found");
+                assertThat(result.get("items").get(2).get("error").asText()).isEqualTo("Invalid item");
+                assertThat(tagRepository.findById(taken)).get().extracting(Tag::getCode).isEqualTo("renamed");
+        }
+
+        @Test
+        void deleteBatch_allFound_is200() throws Exception {
+                Long a = tagRepository.save(new Tag("a")).getId();
+                Long b = tagRepository.save(new Tag("b")).getId();
+
+                JsonNode result = send(delete("/tags/batch"), List.of(a, b), 200);
+
+                assertThat(statuses(result)).containsExactly(204, 204);
+                assertThat(tagRepository.existsById(a)).isFalse();
+                assertThat(tagRepository.existsById(b)).isFalse();
+        }
+
+        @Test
+        void disabledCrud_turnsBatchEndpointsOff() throws Exception {
+                mvc.perform(post("/readings/batch").contentType(MediaType.APPLICATION_JSON).content("[{}]"))
+                                .andExpect(status().isMethodNotAllowed())
+                                .andExpect(header().string("Allow", "GET"));
+                mvc.perform(patch("/readings/batch").contentType(MediaType.APPLICATION_JSON).content("[{\"id\":1}]"))
+                                .andExpect(status().isMethodNotAllowed());
+                mvc.perform(delete("/readings/batch").contentType(MediaType.APPLICATION_JSON).content("[1]"))
+                                .andExpect(status().isMethodNotAllowed());
+        }
+
+        @Test
+        void batchOverTheLimit_isABadRequest() throws Exception {
+                List<Tag> tags = List.of(new Tag("a"), new Tag("b"), new Tag("c"), new Tag("d"), new Tag("e"),
+                                new Tag("f"));
+
+                send(post("/tags/batch"), tags, 400);
+                send(patch("/tags/batch"), tags, 400);
+                send(delete("/tags/batch"), List.of(1L, 2L, 3L, 4L, 5L, 6L), 400);
+                assertThat(tagRepository.count()).isEqualTo(1);
+        }
+
+        @Test
+        void batchWithoutATransactionManager_failsWithAConfigurationError() {
+                TagService service = new TagService(tagRepository);
+
+                assertThatThrownBy(() -> service.createAll(List.of(new Tag("a"))))
+                                .isInstanceOf(IllegalStateException.class)
+                                .hasMessageContaining("PlatformTransactionManager");
+        }
+
+        private JsonNode send(MockHttpServletRequestBuilder request, Object body, int expectedStatus)
+                        throws Exception {
+                String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(body)))
+                                .andExpect(status().is(expectedStatus))
+                                .andReturn().getResponse().getContentAsString();
+                return mapper.readTree(response);
+        }
+
+        private static List<Integer> statuses(JsonNode result) {
+                return result.get("items").findValues("status").stream().map(JsonNode::asInt).toList();
+        }
+}
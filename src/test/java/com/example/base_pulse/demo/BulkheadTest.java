@@ -0,0 +1,126 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.bulkhead.Bulkhead;
+import com.example.base_pulse.bulkhead.BulkheadFullException;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkheadTest {
+
+        @Test
+        void fullQueue_failsFastWith503AndRetryAfter() throws Exception {
+                Bulkhead bulkhead = new Bulkhead("Person", new Bulkhead.Config(1, 1, 5000, false, 3));
+                CountDownLatch release = new CountDownLatch(1);
+
+                ExecutorService pool = Executors.newFixedThreadPool(2);
+                try {
+                        Future<String> running = pool.submit(() -> bulkhead.execute(() -> {
+                                await(release);
+                                return "first";
+                        }, true));
+                        while (bulkhead.stats().active() == 0) {
+                                Thread.onSpinWait();
+                        }
+
+                        Future<String> waiting = pool.submit(() -> bulkhead.execute(() -> "second", true));
+                        while (bulkhead.stats().queued() == 0) {
+                                Thread.onSpinWait();
+                        }
+
+                        // one running, one queued: the next caller is turned away without waiting
+                        long start = System.nanoTime();
+                        assertThatThrownBy(() -> bulkhead.execute(() -> "third", true))
+                                        .isInstanceOfSatisfying(BulkheadFullException.class, e -> {
+                                                assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                                                assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                                                                .isEqualTo("3");
+                                        });
+                        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+
+                        release.countDown();
+                        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+                        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+
+                        Bulkhead.Stats stats = bulkhead.stats();
+                        assertThat(stats.admitted()).isEqualTo(2);
+                        assertThat(stats.rejected()).isEqualTo(1);
+                        assertThat(stats.queueWait().count()).isEqualTo(2);
+                        assertThat(stats.queueWait().maxMs()).isPositive();
+                } finally {
+                        pool.shutdownNow();
+                }
+        }
+
+        @Test
+        void queuedCaller_givesUpAfterMaxWait() throws Exception {
+                Bulkhead bulkhead = new Bulkhead("Person", new Bulkhead.Config(1, 4, 50, false, 1));
+                CountDownLatch release = new CountDownLatch(1);
+
+                ExecutorService pool = Executors.newSingleThreadExecutor();
+                try {
+                        pool.submit(() -> bulkhead.execute(() -> await(release), true));
+                        while (bulkhead.stats().active() == 0) {
+                                Thread.onSpinWait();
+                        }
+
+                        assertThatThrownBy(() -> bulkhead.execute(() -> "late", true))
+                                        .isInstanceOf(BulkheadFullException.class);
+                        assertThat(bulkhead.stats().timedOut()).isEqualTo(1);
+                } finally {
+                        release.countDown();
+                        pool.shutdownNow();
+                }
+        }
+
+        @Test
+        void adaptiveLimit_shrinksWhenLatencyRisesAndRecovers() {
+                Bulkhead bulkhead = new Bulkhead("Person", new Bulkhead.Config(16, 0, 0, true, 1));
+
+                for (int i = 0; i < 20; i++) {
+                        bulkhead.execute(() -> sleep(5), true);
+                }
+                assertThat(bulkhead.stats().limit()).isEqualTo(16);
+
+                // calls well over twice the fastest latency seen back the limit off
+                for (int i = 0; i < 10; i++) {
+                        bulkhead.execute(() -> sleep(50), true);
+                }
+                int reduced = bulkhead.stats().limit();
+                assertThat(reduced).isLessThan(16);
+
+                for (int i = 0; i < 200; i++) {
+                        bulkhead.execute(() -> sleep(5), true);
+                }
+                assertThat(bulkhead.stats().limit()).isGreaterThan(reduced);
+        }
+
+        private static Object await(CountDownLatch latch) {
+                try {
+                        latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+                return null;
+        }
+
+        private static Object sleep(long millis) {
+                try {
+                        Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+                return null;
+        }
+}
@@ -0,0 +1,148 @@
+package com.example.base_pulse.demo;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:counts",
+                "spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureMockMvc
+public class CountModeTest {
+
+        private static final List<String> PATHS = List.of("/persons", "/dynamic/Person");
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Autowired
+        private ObjectMapper mapper;
+
+        private Statistics statistics;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        for (int i = 0; i < 25; i++) {
+                                personRepository.save(new Person("first" + i, "last" + i, i, null));
+                        }
+                }
+                statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        }
+
+        @Test
+        void exact_countsEveryPage() throws Exception {
+                for (String path : PATHS) {
+                        JsonNode page = page(path + "?count=exact&size=10");
+                        assertTotal(page, 25, true);
+                        assertThat(page.get("countMode").asText()).isEqualTo("EXACT");
+                        assertThat(page.get("hasNext").asBoolean()).isTrue();
+                }
+        }
+
+        @Test
+        void none_reportsOnlyHasNext() throws Exception {
+                for (String path : PATHS) {
+                        JsonNode first = page(path + "?count=none&size=10");
+                        assertTotal(first, -1, false);
+                        assertThat(first.get("hasNext").asBoolean()).isTrue();
+                        assertThat(queries()).isEqualTo(1);
+
+                        JsonNode last = page(path + "?count=none&size=10&page=2");
+                        assertTotal(last, -1, false);
+                        assertThat(last.get("hasNext").asBoolean()).isFalse();
+                }
+        }
+
+        @Test
+        void infer_takesTheTotalFromTheLastPage() throws Exception {
+                for (String path : PATHS) {
+                        // a partial last page gives the total without a count query
+                        JsonNode last = page(path + "?count=infer&size=10&page=2");
+                        assertTotal(last, 25, true);
+                        assertThat(last.get("content")).hasSize(5);
+                        assertThat(queries()).isEqualTo(1);
+
+                        JsonNode only = page(path + "?count=infer&size=30");
+                        assertTotal(only, 25, true);
+                        assertThat(queries()).isEqualTo(1);
+
+                        // a full page, or one past the end, still counts
+                        assertTotal(page(path + "?count=infer&size=10"), 25, true);
+                        assertThat(queries()).isEqualTo(2);
+                        assertTotal(page(path + "?count=infer&size=10&page=5"), 25, true);
+                        assertThat(queries()).isEqualTo(2);
+                }
+        }
+
+        @Test
+        void capped_isExactUpToTheCap() throws Exception {
+                for (String path : PATHS) {
+                        assertTotal(page(path + "?count=capped&countCap=30&size=10"), 25, true);
+                        assertTotal(page(path + "?count=capped&countCap=25&size=10"), 25, true);
+                        assertTotal(page(path + "?count=capped&countCap=24&size=10"), 24, false);
+                        assertTotal(page(path + "?count=capped&countCap=5&size=10"), 5, false);
+
+                        // the last page is exact whatever the cap
+                        assertTotal(page(path + "?count=capped&countCap=5&size=10&page=2"), 25, true);
+                }
+        }
+
+        @Test
+        void findOne_runsNoCount() throws Exception {
+                JsonNode row = page("/dynamic/Person/one?fields=id,firstName"
+                                + "&filters[0][field]=age&filters[0][operator]=eq&filters[0][value]=3");
+
+                assertThat(row.get("firstName").asText()).isEqualTo("first3");
+                assertThat(queries()).isEqualTo(1);
+        }
+
+        @Test
+        void badPagingParameters_areABadRequest() throws Exception {
+                for (String path : PATHS) {
+                        for (String query : List.of("count=bogus", "paging=sideways", "count=capped&countCap=abc",
+                                        "count=capped&countCap=0", "count=capped&countCap=-5")) {
+                                assertThat(mvc.perform(get(path + "?" + query)).andReturn().getResponse().getStatus())
+                                                .as(path + "?" + query)
+                                                .isEqualTo(400);
+                        }
+                }
+        }
+
+        private JsonNode page(String url) throws Exception {
+                statistics.clear();
+                String body = mvc.perform(get(url)).andReturn().getResponse().getContentAsString();
+                return mapper.readTree(body);
+        }
+
+        private long queries() {
+                return statistics.getQueryExecutionCount();
+        }
+
+        private static void assertTotal(JsonNode page, long total, boolean exact) {
+                assertThat(page.get("total").asLong()).isEqualTo(total);
+                assertThat(page.get("totalExact").asBoolean()).isEqualTo(exact);
+        }
+}
@@ -0,0 +1,64 @@
+package com.example.base_pulse.demo;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.utils.PageResult;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:customspec")
+public class CustomSpecificationTest {
+
+        @Autowired
+        private TagRepository tagRepository;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @BeforeEach
+        void setup() {
+                tagRepository.deleteAll();
+                tagRepository.saveAll(List.of(new Tag("a"), new Tag("b"), new Tag("c")));
+        }
+
+        @Test
+        void overriddenBuildSpecification_appliesOnlyWhenOptedIn() {
+                PageResult<Tag> page = service(true).findAll(PageRequest.of(0, 10), List.of(), List.of());
+                assertThat(page.getContent()).extracting(Tag::getCode).containsExactly("b");
+                assertThat(page.getTotal()).isEqualTo(1);
+
+                // without the hook the compiled filters are used and the override is not called
+                assertThat(service(false).findAll(PageRequest.of(0, 10), List.of(), List.of()).getContent())
+                                .hasSize(3);
+        }
+
+        private TagService service(boolean optIn) {
+                TagService service = new TagService(tagRepository) {
+                        @Override
+                        protected boolean usesBuildSpecification() {
+                                return optIn;
+                        }
+
+                        @Override
+                        protected Specification<Tag> buildSpecification(List<SearchCriteria> filters) {
+                                return (root, query, cb) -> cb.equal(root.get("code"), "b");
+                        }
+                };
+                ReflectionTestUtils.setField(service, "entityManager", entityManager);
+                ReflectionTestUtils.setField(service, "preparedEntityManager", entityManager);
+                return service;
+        }
+}
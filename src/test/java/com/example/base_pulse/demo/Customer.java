@@ -0,0 +1,28 @@
+package com.example.base_pulse.demo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.base_pulse.entities.BaseEntity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.OneToMany;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Fixture with a to-many association, for filters on orders.* and expand=orders.
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class Customer extends BaseEntity {
+    private String name;
+
+    @OneToMany(mappedBy = "customer")
+    private List<PurchaseOrder> orders = new ArrayList<>();
+
+    public Customer(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.base_pulse.demo;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.base_pulse.controllers.BaseController;
+
+@RestController
+@RequestMapping("/customers")
+public class CustomerController extends BaseController<Customer> {
+
+    public CustomerController(CustomerService service) {
+        super(service);
+    }
+}
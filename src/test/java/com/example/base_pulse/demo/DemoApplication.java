@@ -0,0 +1,8 @@
+package com.example.base_pulse.demo;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// Minimal application over the library, used by the integration tests.
+@SpringBootApplication(scanBasePackages = "com.example.base_pulse")
+public class DemoApplication {
+}
@@ -0,0 +1,26 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.entities.BaseEntity;
+import com.example.base_pulse.entities.annotations.CachedQueries;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.ManyToOne;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Fixture for the result cache: a cached entity with a subtype (Sensor) and
+// a to-one relation (Site) whose writes must invalidate its pages.
+@Entity
+@CachedQueries(ttlSeconds = 600)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Device extends BaseEntity {
+    private String name;
+
+    @ManyToOne
+    private Site site;
+}
@@ -2,7 +2,9 @@ package com.example.base_pulse.demo;
 
 import com.example.base_pulse.repositories.DynamicJpaRepository;
 import com.example.base_pulse.services.DynamicQueryServiceImpl;
+import com.example.base_pulse.specifications.CountMode;
 import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.PageCriteria;
 import com.example.base_pulse.specifications.SearchCriteria;
 import com.example.base_pulse.specifications.SortCriteria;
 import com.example.base_pulse.utils.PageResult;
@@ -151,19 +153,22 @@ public class DynamicQueryServiceTest {
                                 isNull(),
                                 eq(filters),
                                 isNull(),
-                                eq(onePage))).thenReturn(mockResult);
+                                eq(onePage),
+                                any(PageCriteria.class))).thenReturn(mockResult);
 
                 Map<String, Object> result = service.findOne("Demo", null, filters);
 
                 assertThat(result).isNotNull();
                 assertThat(result.get("name")).isEqualTo("Saji");
 
+                // a single row needs no total
                 verify(dynamicRepo).findDynamic(
                                 eq("Demo"),
                                 isNull(),
                                 eq(filters),
                                 isNull(),
-                                eq(onePage));
+                                eq(onePage),
+                                argThat(page -> page.getCountMode() == CountMode.NONE));
         }
 
         @Test
@@ -178,7 +183,8 @@ public class DynamicQueryServiceTest {
                                 any(),
                                 eq(filters),
                                 isNull(),
-                                any(Pageable.class)))
+                                any(Pageable.class),
+                                any(PageCriteria.class)))
                                 .thenReturn(emptyResult);
 
                 Map<String, Object> result = service.findOne("Demo", null, filters);
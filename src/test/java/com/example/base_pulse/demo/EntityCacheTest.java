@@ -0,0 +1,51 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.cache.CacheStats;
+import com.example.base_pulse.cache.EntityCache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EntityCacheTest {
+
+        private static final byte[] ROW = { 1 };
+
+        @Test
+        void leastRecentlyUsedEntry_isEvictedFirst() {
+                EntityCache cache = new EntityCache(2, 1, TimeUnit.MINUTES);
+                cache.put(1L, ROW, cache.generation());
+                cache.put(2L, ROW, cache.generation());
+                cache.get(1L);
+                cache.put(3L, ROW, cache.generation());
+
+                assertThat(cache.get(2L)).isNull();
+                assertThat(cache.get(1L)).isNotNull();
+                assertThat(cache.stats().evictions()).isEqualTo(1);
+        }
+
+        @Test
+        void expiredEntry_isAMiss() throws InterruptedException {
+                EntityCache cache = new EntityCache(10, 20, TimeUnit.MILLISECONDS);
+                cache.put(1L, ROW, cache.generation());
+                Thread.sleep(40);
+
+                assertThat(cache.get(1L)).isNull();
+                CacheStats stats = cache.stats();
+                assertThat(stats.expirations()).isEqualTo(1);
+                assertThat(stats.size()).isZero();
+        }
+
+        @Test
+        void loadStartedBeforeAnInvalidation_isNotStored() {
+                EntityCache cache = new EntityCache(10, 1, TimeUnit.MINUTES);
+                long generation = cache.generation();
+                cache.invalidate(1L);
+                cache.put(1L, ROW, generation);
+
+                assertThat(cache.get(1L)).isNull();
+                assertThat(cache.stats().misses()).isEqualTo(1);
+        }
+}
@@ -0,0 +1,88 @@
+package com.example.base_pulse.demo;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.specifications.CrudOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:registry")
+@AutoConfigureMockMvc
+public class EntityMetadataRegistryTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private EntityMetadataRegistry registry;
+
+        @Test
+        void operatorsFollowTheAttributeType() {
+                EntityDescriptor person = registry.get(Person.class);
+
+                assertThat(person.attribute("firstName").allows(CrudOperator.CONTAINS)).isTrue();
+                assertThat(person.attribute("age").allows(CrudOperator.CONTAINS)).isFalse();
+                assertThat(person.attribute("age").allows(CrudOperator.BETWEEN)).isTrue();
+                assertThat(person.attribute("address.city").allows(CrudOperator.NOT_CONTAINS)).isTrue();
+        }
+
+        @Test
+        void textOperatorOnANumber_isABadRequest() throws Exception {
+                assertRejected(get("/dynamic/Person")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "contains")
+                                .param("filters[0][value]", "3"),
+                                "Operator CONTAINS is not supported on field 'age'");
+
+                assertRejected(get("/persons")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "contains")
+                                .param("filters[0][value]", "3"),
+                                "is not supported");
+        }
+
+        @Test
+        void unknownFieldOrEntity_isRejected() throws Exception {
+                assertRejected(get("/dynamic/Person")
+                                .param("filters[0][field]", "nickname")
+                                .param("filters[0][operator]", "eq")
+                                .param("filters[0][value]", "x"),
+                                "Unknown field 'nickname'");
+                assertRejected(get("/persons")
+                                .param("sort[0][field]", "nickname")
+                                .param("sort[0][order]", "asc"),
+                                "Unknown field 'nickname'");
+                assertRejected(get("/dynamic/Person").param("fields", "id,nickname"), "Unknown field 'nickname'");
+
+                assertThatThrownBy(() -> registry.get("Nobody"))
+                                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        void allowedOperator_isAccepted() throws Exception {
+                mvc.perform(get("/dynamic/Person")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "gte")
+                                .param("filters[0][value]", "3"))
+                                .andExpect(status().isOk());
+        }
+
+        private void assertRejected(MockHttpServletRequestBuilder request, String message) throws Exception {
+                MvcResult result = mvc.perform(request).andReturn();
+
+                assertThat(result.getResponse().getStatus()).isEqualTo(400);
+                assertThat(result.getResolvedException()).hasMessageContaining(message);
+        }
+}
@@ -0,0 +1,117 @@
+package com.example.base_pulse.demo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:expand",
+                "base-pulse.json.skip-unloaded=true",
+                "base-pulse.timing.enabled=true",
+                "base-pulse.timing.header-counts=true" })
+@AutoConfigureMockMvc
+public class ExpandTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private EntityManager em;
+
+        @Autowired
+        private TransactionTemplate tx;
+
+        private Long annId;
+
+        @BeforeEach
+        void setup() {
+                annId = tx.execute(status -> {
+                        if (em.createQuery("select count(p) from Person p", Long.class).getSingleResult() == 0) {
+                                em.persist(new Person("ann", "a", 30, new Address("paris")));
+                                em.persist(new Person("bob", "b", 40, new Address("berlin")));
+                                em.persist(new Person("cid", "c", 50, null));
+
+                                for (String name : new String[] { "dan", "eve", "fay" }) {
+                                        Customer customer = new Customer(name);
+                                        em.persist(customer);
+                                        for (int i = 1; i <= 3; i++) {
+                                                em.persist(new PurchaseOrder(name + "-" + i, i * 10, customer));
+                                        }
+                                }
+                        }
+                        return em.createQuery("select p.id from Person p where p.firstName = 'ann'", Long.class)
+                                        .getSingleResult();
+                });
+        }
+
+        @Test
+        void unexpandedAssociations_areNeitherLoadedNorWritten() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/persons").param("count", "none")
+                                .param("size", "10")).andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).contains("\"firstName\":\"ann\"").doesNotContain("city");
+                assertThat(response.getHeader("Server-Timing")).contains("sql;desc=\"1\"");
+        }
+
+        @Test
+        void expandedToOne_comesWithThePageQuery() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/persons").param("count", "none")
+                                .param("size", "10")
+                                .param("expand", "address")).andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).contains("\"city\":\"paris\"", "\"city\":\"berlin\"");
+                assertThat(response.getHeader("Server-Timing")).contains("sql;desc=\"1\"");
+        }
+
+        @Test
+        void expandedToOne_onSingleEntity() throws Exception {
+                String plain = mvc.perform(get("/persons/" + annId)).andReturn().getResponse().getContentAsString();
+                String expanded = mvc.perform(get("/persons/" + annId).param("expand", "address"))
+                                .andReturn().getResponse().getContentAsString();
+
+                assertThat(plain).doesNotContain("city");
+                assertThat(expanded).contains("\"address\":{", "\"city\":\"paris\"");
+        }
+
+        @Test
+        void expandedCollection_isLoadedWithOneQueryForThePage() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/customers").param("count", "none")
+                                .param("size", "2")
+                                .param("expand", "orders")).andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                // limits still apply to customers, not to customer x order rows
+                assertThat(response.getContentAsString()).contains("\"name\":\"dan\"", "\"dan-3\"",
+                                "\"name\":\"eve\"", "\"eve-1\"").doesNotContain("fay");
+                assertThat(response.getHeader("Server-Timing")).contains("sql;desc=\"2\"");
+        }
+
+        @Test
+        void unknownOrPlainField_isABadRequest() throws Exception {
+                assertRejected("/persons", "noSuchField", "has no field 'noSuchField'");
+                assertRejected("/persons", "firstName", "is not an association");
+                assertRejected("/persons/" + annId, "noSuchField", "has no field 'noSuchField'");
+                assertRejected("/customers", "orders.customer", "only the last part of a path can be a collection");
+        }
+
+        private void assertRejected(String url, String expand, String message) throws Exception {
+                MvcResult result = mvc.perform(get(url).param("expand", expand)).andReturn();
+
+                assertThat(result.getResponse().getStatus()).isEqualTo(400);
+                assertThat(result.getResolvedException()).hasMessageContaining(message);
+        }
+}
@@ -0,0 +1,90 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.entities.AbstractBaseEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Insert throughput for IDENTITY vs pooled sequence ids at several JDBC batch sizes.
+// Run with: mvn test -Dtest=IdGenerationBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class IdGenerationBenchmarkTest {
+
+        private static final int ROWS = 20_000;
+        private static final int CHUNK = 1_000;
+        private static final int[] BATCH_SIZES = { 1, 10, 50, 200 };
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Test
+        void identityVsPooledInsertThroughput() {
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+                // warm up the JIT, the pool and both sequences
+                insert(i -> new IdentityRecord("warmup" + i, i), 50, ROWS / 4);
+                insert(i -> new PooledRecord("warmup" + i, i), 50, ROWS / 4);
+
+                System.out.printf("%-10s %6s %12s %12s %12s%n", "ids", "batch", "rows/s", "prepared", "inserts");
+                long pooledStatementsAt50 = 0;
+                long identityStatementsAt50 = 0;
+
+                for (int batchSize : BATCH_SIZES) {
+                        for (String kind : new String[] { "identity", "pooled" }) {
+                                IntFunction<AbstractBaseEntity> row = "identity".equals(kind)
+                                                ? i -> new IdentityRecord("row" + i, i)
+                                                : i -> new PooledRecord("row" + i, i);
+
+                                statistics.clear();
+                                long nanos = insert(row, batchSize, ROWS);
+                                long statements = statistics.getPrepareStatementCount();
+
+                                System.out.printf("%-10s %6d %12.0f %12d %12d%n", kind, batchSize,
+                                                ROWS / (nanos / 1e9), statements, statistics.getEntityInsertCount());
+
+                                if (batchSize == 50) {
+                                        if ("identity".equals(kind)) {
+                                                identityStatementsAt50 = statements;
+                                        } else {
+                                                pooledStatementsAt50 = statements;
+                                        }
+                                }
+                        }
+                }
+
+                // IDENTITY needs one round trip per row whatever the batch size
+                assertThat(identityStatementsAt50).isGreaterThanOrEqualTo(ROWS);
+                assertThat(pooledStatementsAt50).isLessThan(ROWS / 10);
+        }
+
+        private long insert(IntFunction<? extends AbstractBaseEntity> row, int batchSize, int rows) {
+                long start = System.nanoTime();
+
+                for (int from = 0; from < rows; from += CHUNK) {
+                        EntityManager em = entityManagerFactory.createEntityManager();
+                        em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                        em.getTransaction().begin();
+                        for (int i = from; i < Math.min(rows, from + CHUNK); i++) {
+                                em.persist(row.apply(i));
+                        }
+                        em.getTransaction().commit();
+                        em.close();
+                }
+
+                return System.nanoTime() - start;
+        }
+}
@@ -0,0 +1,98 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.metrics.IndexAdvisor;
+import com.example.base_pulse.services.DynamicQueryService;
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.PageCriteria;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "base-pulse.index-advisor.enabled=true",
+                "base-pulse.index-advisor.min-count=3",
+                "base-pulse.index-advisor.auto-apply=true",
+                "spring.datasource.url=jdbc:h2:mem:advisor" })
+public class IndexAdvisorTest {
+
+        @Autowired
+        private DynamicQueryService dynamicQueryService;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Autowired
+        private IndexAdvisor advisor;
+
+        @Autowired
+        private DataSource dataSource;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        for (int i = 0; i < 10; i++) {
+                                personRepository.save(new Person("first" + i, "last" + i, i % 3, null));
+                        }
+                }
+                advisor.reset();
+        }
+
+        @Test
+        void repeatedShape_isRecommendedAndAppliedOnH2() throws Exception {
+                for (int age = 0; age < 3; age++) {
+                        dynamicQueryService.findList("Person", List.of("id"),
+                                        List.of(new SearchCriteria("age", CrudOperator.EQ, String.valueOf(age)),
+                                                        new SearchCriteria("firstName", CrudOperator.CONTAINS, "irst")),
+                                        List.of(new SortCriteria("lastName", Sort.Direction.DESC)),
+                                        PageRequest.of(0, 5), PageCriteria.offset());
+                }
+
+                IndexAdvisor.Report report = advisor.report();
+
+                assertThat(report.filters())
+                                .extracting(IndexAdvisor.FilterUsage::field, IndexAdvisor.FilterUsage::indexable,
+                                                IndexAdvisor.FilterUsage::count)
+                                .containsExactlyInAnyOrder(
+                                                Tuple.tuple("age", true, 3L),
+                                                Tuple.tuple("firstName", false, 3L));
+                assertThat(report.sorts()).singleElement()
+                                .satisfies(s -> assertThat(s.sort()).containsExactly("lastName desc"));
+
+                // min-count was reached, so the composite is created in the background; it leads
+                // with age as well, so once it exists nothing is left to advise
+                long deadline = System.currentTimeMillis() + 5000;
+                while (!advisor.report().recommendations().isEmpty() && System.currentTimeMillis() < deadline) {
+                        Thread.sleep(50);
+                }
+                assertThat(advisor.report().recommendations()).isEmpty();
+
+                try (Connection connection = dataSource.getConnection();
+                                ResultSet rs = connection.createStatement().executeQuery(
+                                                "select column_name from information_schema.index_columns"
+                                                                + " where index_name = 'IX_PERSON_AGE_LAST_NAME'"
+                                                                + " order by ordinal_position")) {
+                        List<String> columns = new ArrayList<>();
+                        while (rs.next()) {
+                                columns.add(rs.getString(1));
+                        }
+                        assertThat(columns).containsExactly("AGE", "LAST_NAME");
+                }
+        }
+}
@@ -0,0 +1,197 @@
+package com.example.base_pulse.demo;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// NULLs sort high on this database, as on PostgreSQL and Oracle, so the
+// pages only line up when the ORDER BY states its null precedence
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:keyset;DEFAULT_NULL_ORDERING=HIGH",
+                "spring.jpa.database-platform=com.example.base_pulse.demo.NullsHighH2Dialect" })
+@AutoConfigureMockMvc
+public class KeysetPagingTest {
+
+        private static final Instant START = Instant.parse("2024-03-01T10:00:00.123456Z");
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private EntityManager em;
+
+        @Autowired
+        private TransactionTemplate tx;
+
+        @Autowired
+        private ObjectMapper mapper;
+
+        @BeforeEach
+        void setup() {
+                tx.executeWithoutResult(status -> {
+                        if (em.createQuery("select count(r) from Reading r", Long.class).getSingleResult() > 0) {
+                                return;
+                        }
+                        for (int i = 0; i < 31; i++) {
+                                em.persist(new Reading(
+                                                i % 4 == 0 ? null : new BigDecimal((i % 5) + ".25"),
+                                                i % 3 == 0 ? null : START.plusSeconds((i % 6) * 3600L),
+                                                i % 5 == 0 ? null : UUID.nameUUIDFromBytes(("r" + i % 7).getBytes()),
+                                                i % 4 == 1 ? null : (short) (i % 3),
+                                                i % 6 == 0 ? null : new Date(START.toEpochMilli() + (i % 4) * 1000L)));
+                        }
+                        for (int i = 0; i < 17; i++) {
+                                em.persist(new Person("p" + i, "last" + (i % 3), i % 4 == 0 ? null : i % 5, null));
+                        }
+                });
+        }
+
+        @Test
+        void mixedDirections_onNullableKeys_visitEveryRowOnce() throws Exception {
+                assertWalk("amount", "asc", "takenAt", "desc");
+                assertWalk("takenAt", "desc", "amount", "asc");
+                assertWalk("level", "desc", "ref", "asc");
+                assertWalk("recordedOn", "asc", "level", "asc");
+        }
+
+        @Test
+        void baseController_pagesNullableKeysInOrder() throws Exception {
+                List<Person> all = em.createQuery("select p from Person p", Person.class).getResultList();
+                List<Long> expected = all.stream()
+                                .sorted(key(Person::getAge, false).thenComparing(key(Person::getLastName, true))
+                                                .thenComparing(Person::getId))
+                                .map(Person::getId)
+                                .toList();
+
+                List<Long> seen = walk("/persons", "age", "desc", "lastName", "asc");
+
+                assertThat(seen).containsExactlyElementsOf(expected);
+        }
+
+        @Test
+        void cursorForAnotherSort_isRejected() throws Exception {
+                String cursor = page("/dynamic/Reading", null, "amount", "asc", "takenAt", "desc")
+                                .get("nextCursor").asText();
+
+                assertRejected(request("/dynamic/Reading", cursor, "amount", "desc", "takenAt", "desc"),
+                                "does not match");
+
+                String personCursor = page("/persons", null, "age", "asc", "lastName", "asc")
+                                .get("nextCursor").asText();
+                assertRejected(request("/persons", personCursor, "age", "asc", "lastName", "desc"),
+                                "does not match");
+        }
+
+        @Test
+        void malformedOrTamperedCursor_isABadRequest() throws Exception {
+                assertRejected(request("/dynamic/Reading", "not a cursor", "amount", "asc", "takenAt", "desc"),
+                                "Malformed cursor");
+                assertRejected(request("/persons", "bm90IGpzb24", "age", "asc", "lastName", "asc"),
+                                "Malformed cursor");
+
+                // well-formed, but amount is not a number
+                String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                                "{\"sort\":\"amount:ASC,takenAt:DESC,id:ASC\",\"values\":[\"x\",null,1]}"
+                                                .getBytes(StandardCharsets.UTF_8));
+                assertRejected(request("/dynamic/Reading", tampered, "amount", "asc", "takenAt", "desc"),
+                                "Malformed cursor value");
+        }
+
+        private void assertRejected(MockHttpServletRequestBuilder request, String message) throws Exception {
+                MvcResult result = mvc.perform(request).andReturn();
+
+                assertThat(result.getResponse().getStatus()).isEqualTo(400);
+                assertThat(result.getResolvedException()).hasMessageContaining(message);
+        }
+
+        private void assertWalk(String first, String firstOrder, String second, String secondOrder)
+                        throws Exception {
+                List<Reading> all = em.createQuery("select r from Reading r", Reading.class).getResultList();
+                Comparator<Reading> order = key(getter(first), firstOrder.equals("asc"))
+                                .thenComparing(key(getter(second), secondOrder.equals("asc")))
+                                .thenComparing(Reading::getId);
+                List<Long> expected = all.stream().sorted(order).map(Reading::getId).toList();
+
+                List<Long> seen = walk("/dynamic/Reading", first, firstOrder, second, secondOrder);
+
+                assertThat(seen).as("%s %s, %s %s", first, firstOrder, second, secondOrder)
+                                .doesNotHaveDuplicates()
+                                .containsExactlyElementsOf(expected);
+        }
+
+        private List<Long> walk(String path, String first, String firstOrder, String second, String secondOrder)
+                        throws Exception {
+                List<Long> seen = new ArrayList<>();
+                String cursor = null;
+                do {
+                        JsonNode page = page(path, cursor, first, firstOrder, second, secondOrder);
+                        page.get("content").forEach(row -> seen.add(row.get("id").asLong()));
+                        cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+                } while (cursor != null);
+                return seen;
+        }
+
+        private JsonNode page(String path, String cursor, String first, String firstOrder, String second,
+                        String secondOrder) throws Exception {
+                String body = mvc.perform(request(path, cursor, first, firstOrder, second, secondOrder))
+                                .andReturn().getResponse().getContentAsString();
+                return mapper.readTree(body);
+        }
+
+        private static MockHttpServletRequestBuilder request(String path, String cursor, String first,
+                        String firstOrder, String second, String secondOrder) {
+                MockHttpServletRequestBuilder request = get(path)
+                                .param("size", "4")
+                                .param("sort[0][field]", first)
+                                .param("sort[0][order]", firstOrder)
+                                .param("sort[1][field]", second)
+                                .param("sort[1][order]", secondOrder);
+                return cursor == null ? request : request.param("cursor", cursor);
+        }
+
+        private static Function<Reading, Comparable<?>> getter(String field) {
+                return switch (field) {
+                        case "amount" -> Reading::getAmount;
+                        case "takenAt" -> Reading::getTakenAt;
+                        // databases compare UUIDs as unsigned bytes, UUID.compareTo as signed longs
+                        case "ref" -> r -> r.getRef() == null ? null : r.getRef().toString();
+                        case "level" -> Reading::getLevel;
+                        case "recordedOn" -> r -> r.getRecordedOn() == null ? null : r.getRecordedOn().getTime();
+                        default -> throw new IllegalArgumentException(field);
+                };
+        }
+
+        // NULLs sort low: first ascending, last descending
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static <R> Comparator<R> key(Function<R, ? extends Comparable> getter, boolean ascending) {
+                Comparator<Comparable> natural = Comparator.naturalOrder();
+                Comparator<R> order = Comparator.comparing(getter, Comparator.nullsFirst(natural));
+                return ascending ? order : order.reversed();
+        }
+}
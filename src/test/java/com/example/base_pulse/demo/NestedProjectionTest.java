@@ -0,0 +1,81 @@
+package com.example.base_pulse.demo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:nested",
+                "base-pulse.slow-query.threshold-ms=0",
+                "base-pulse.slow-queries.enabled=true",
+                "base-pulse.timing.enabled=true",
+                "base-pulse.timing.header-counts=true" })
+@AutoConfigureMockMvc
+public class NestedProjectionTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        personRepository.save(new Person("ann", "a", 30, new Address("paris")));
+                        personRepository.save(new Person("bob", "b", 40, null));
+                        personRepository.save(new Person("cid", "c", 50, new Address("berlin")));
+                }
+        }
+
+        @Test
+        void dottedFields_comeFromOneLeftJoin() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/dynamic/Person")
+                                .param("fields", "firstName,address.city")
+                                .param("sort[0][field]", "address.city")
+                                .param("sort[0][order]", "asc")
+                                .param("count", "none")
+                                .param("size", "10"))
+                                .andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                // the person without an address is kept, with a null city
+                assertThat(response.getContentAsString()).contains(
+                                "{\"firstName\":\"bob\",\"address.city\":null},"
+                                                + "{\"firstName\":\"cid\",\"address.city\":\"berlin\"},"
+                                                + "{\"firstName\":\"ann\",\"address.city\":\"paris\"}");
+                assertThat(response.getHeader("Server-Timing")).contains("sql;desc=\"1\"");
+        }
+
+        @Test
+        void filterSortAndProjection_shareTheJoin() throws Exception {
+                mvc.perform(delete("/metrics/slow-queries"));
+                MockHttpServletResponse response = mvc.perform(get("/dynamic/Person")
+                                .param("fields", "id,address.city")
+                                .param("filters[0][field]", "address.city")
+                                .param("filters[0][operator]", "startswith")
+                                .param("filters[0][value]", "p")
+                                .param("sort[0][field]", "address.city")
+                                .param("count", "none")
+                                .param("size", "10"))
+                                .andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).contains("\"address.city\":\"paris\"")
+                                .doesNotContain("berlin");
+                assertThat(response.getHeader("Server-Timing")).contains("sql;desc=\"1\"");
+
+                String recorded = mvc.perform(get("/metrics/slow-queries")).andReturn().getResponse()
+                                .getContentAsString().toLowerCase();
+                assertThat(recorded).containsOnlyOnce("left join address");
+        }
+}
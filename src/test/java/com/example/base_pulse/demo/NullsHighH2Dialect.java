@@ -0,0 +1,14 @@
+package com.example.base_pulse.demo;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.NullOrdering;
+
+// H2 run with DEFAULT_NULL_ORDERING=HIGH, i.e. PostgreSQL's and Oracle's
+// null ordering, so Hibernate renders the NULLS FIRST/LAST it would render there
+public class NullsHighH2Dialect extends H2Dialect {
+
+    @Override
+    public NullOrdering getNullOrdering() {
+        return NullOrdering.GREATEST;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.base_pulse.demo;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.base_pulse.bulkhead.Bulkhead;
+import com.example.base_pulse.bulkhead.EntityBulkheads;
+import com.example.base_pulse.utils.BackgroundTasks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:parallelcount",
+                "base-pulse.query.parallel-count=true",
+                "base-pulse.executor.threads=1",
+                "base-pulse.executor.queue-capacity=1",
+                "base-pulse.bulkhead.enabled=true",
+                "base-pulse.bulkhead.entity.Customer.permits=1",
+                "base-pulse.timing.enabled=true",
+                "base-pulse.timing.header-counts=true" })
+@AutoConfigureMockMvc
+public class ParallelCountTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Autowired
+        private BackgroundTasks tasks;
+
+        @Autowired
+        private EntityBulkheads bulkheads;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        for (int i = 0; i < 30; i++) {
+                                personRepository.save(new Person("first" + i, "last" + i, i, null));
+                        }
+                }
+        }
+
+        @Test
+        void exactCount_runsAlongsideThePage() throws Exception {
+                MockHttpServletResponse response = page("exact");
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).contains("\"total\":20", "\"totalExact\":true");
+                // the count ran on another thread but is still part of this request
+                assertThat(response.getHeader("Server-Timing")).contains("sql;desc=\"2\"", "count;dur=");
+        }
+
+        @Test
+        void cappedCount_stopsAtTheCap() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/dynamic/Person")
+                                .param("fields", "id")
+                                .param("count", "capped")
+                                .param("countCap", "5")
+                                .param("size", "3"))
+                                .andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).contains("\"total\":5", "\"totalExact\":false");
+        }
+
+        @Test
+        void unneededCount_isDropped() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/dynamic/Person")
+                                .param("fields", "id")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "lt")
+                                .param("filters[0][value]", "2")
+                                .param("count", "infer")
+                                .param("size", "10"))
+                                .andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).contains("\"total\":2", "\"totalExact\":true");
+        }
+
+        @Test
+        void count_takesABulkheadPermitOfItsOwn() throws Exception {
+                long before = admitted("Person");
+
+                assertThat(page("exact").getStatus()).isEqualTo(200);
+
+                assertThat(admitted("Person") - before).isEqualTo(2);
+                assertThat(bulkheads.stats().get("Person").active()).isZero();
+        }
+
+        @Test
+        void noFreePermit_countsAfterThePage() throws Exception {
+                // the page holds Customer's only permit, so the count cannot get a second connection
+                long before = admitted("Customer");
+
+                MockHttpServletResponse response = mvc.perform(get("/dynamic/Customer")
+                                .param("fields", "id")
+                                .param("count", "exact")
+                                .param("size", "3"))
+                                .andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).contains("\"totalExact\":true");
+                assertThat(admitted("Customer") - before).isEqualTo(1);
+        }
+
+        @Test
+        void fullQueue_countsOnTheCallersThread() throws Exception {
+                CountDownLatch release = new CountDownLatch(1);
+                CountDownLatch running = new CountDownLatch(1);
+                try {
+                        // the only thread is busy and the one queue slot is taken
+                        tasks.execute(() -> {
+                                running.countDown();
+                                await(release);
+                        });
+                        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+                        tasks.execute(() -> await(release));
+                        assertThatThrownBy(() -> tasks.execute(() -> {
+                        })).isInstanceOf(TaskRejectedException.class);
+
+                        MockHttpServletResponse response = page("exact");
+
+                        assertThat(response.getStatus()).isEqualTo(200);
+                        assertThat(response.getContentAsString()).contains("\"total\":20", "\"totalExact\":true");
+                } finally {
+                        release.countDown();
+                }
+        }
+
+        private long admitted(String entity) {
+                Bulkhead.Stats stats = bulkheads.stats().get(entity);
+                return stats == null ? 0 : stats.admitted();
+        }
+
+        private static void await(CountDownLatch latch) {
+                try {
+                        latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+
+        private MockHttpServletResponse page(String count) throws Exception {
+                return mvc.perform(get("/dynamic/Person")
+                                .param("fields", "id,firstName")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "gte")
+                                .param("filters[0][value]", "10")
+                                .param("count", count)
+                                .param("size", "3"))
+                                .andReturn().getResponse();
+        }
+}
@@ -0,0 +1,15 @@
+package com.example.base_pulse.demo;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.base_pulse.controllers.BaseController;
+
+@RestController
+@RequestMapping("/persons")
+public class PersonController extends BaseController<Person> {
+
+    public PersonController(PersonService service) {
+        super(service);
+    }
+}
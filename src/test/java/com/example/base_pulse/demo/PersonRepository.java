@@ -0,0 +1,6 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.repositories.GenericJpaRepository;
+
+public interface PersonRepository extends GenericJpaRepository<Person> {
+}
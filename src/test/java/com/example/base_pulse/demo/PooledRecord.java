@@ -0,0 +1,21 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.entities.PooledBaseEntity;
+import com.example.base_pulse.entities.annotations.SequenceAllocation;
+
+import jakarta.persistence.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SequenceAllocation(size = 100)
+public class PooledRecord extends PooledBaseEntity {
+    private String name;
+    private int amount;
+}
@@ -0,0 +1,113 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.entities.annotations.QueryLimits;
+import com.example.base_pulse.metadata.QueryLimitException;
+import com.example.base_pulse.metadata.QueryPolicy;
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.SearchCriteria;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "base-pulse.limits.max-page-size=50",
+                "base-pulse.limits.max-filters=3",
+                "base-pulse.limits.max-in-values=3",
+                "base-pulse.limits.max-wildcard-filters=1",
+                "base-pulse.json.skip-unloaded=true" })
+@AutoConfigureMockMvc
+public class QueryLimitsTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Test
+        void requestsWithinTheLimits_pass() throws Exception {
+                request("/dynamic/Person?size=50"
+                                + "&filters[0][field]=age&filters[0][operator]=in"
+                                + "&filters[0][value][0]=1&filters[0][value][1]=2&filters[0][value][2]=3"
+                                + "&filters[1][field]=lastName&filters[1][operator]=contains&filters[1][value]=a")
+                                .andExpect(status().isOk());
+                request("/persons?size=50").andExpect(status().isOk());
+        }
+
+        @Test
+        void pageSizeOverTheLimit_isRejected() throws Exception {
+                request("/dynamic/Person?size=51").andExpect(status().isBadRequest());
+                request("/persons?size=51").andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void tooManyFilters_areRejected() throws Exception {
+                request("/dynamic/Person?filters[0][field]=age&filters[0][operator]=gt&filters[0][value]=1"
+                                + "&filters[1][field]=age&filters[1][operator]=lt&filters[1][value]=9"
+                                + "&filters[2][field]=firstName&filters[2][operator]=eq&filters[2][value]=a"
+                                + "&filters[3][field]=lastName&filters[3][operator]=eq&filters[3][value]=b")
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void longInList_isRejected() throws Exception {
+                request("/dynamic/Person/one?filters[0][field]=age&filters[0][operator]=in"
+                                + "&filters[0][value][0]=1&filters[0][value][1]=2"
+                                + "&filters[0][value][2]=3&filters[0][value][3]=4")
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void leadingWildcards_areCapped() throws Exception {
+                request("/persons?filters[0][field]=firstName&filters[0][operator]=contains&filters[0][value]=a"
+                                + "&filters[1][field]=lastName&filters[1][operator]=endswith&filters[1][value]=b")
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void entityAllowlistsAndOverrides_apply() throws Exception {
+                // @QueryLimits on Address: city only, and pages of up to 100
+                request("/dynamic/Address?fields=id,city&size=100&sort[0][field]=city"
+                                + "&filters[0][field]=city&filters[0][operator]=eq&filters[0][value]=x")
+                                .andExpect(status().isOk());
+                request("/dynamic/Address?sort[0][field]=id").andExpect(status().isBadRequest());
+                request("/dynamic/Address?filters[0][field]=createdAt&filters[0][operator]=gt"
+                                + "&filters[0][value]=2020-01-01T00:00:00")
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void annotation_keepsOrLiftsEachDefault() {
+                QueryPolicy defaults = new QueryPolicy(50, 3, 3, 1, Set.of(), Set.of(), 1000, 10);
+                QueryPolicy policy = QueryPolicy.of(Unlimited.class.getAnnotation(QueryLimits.class), defaults);
+
+                assertThat(policy.getMaxPageSize()).isEqualTo(50);
+                assertThat(policy.getMaxFilters()).isEqualTo(QueryPolicy.UNLIMITED);
+                assertThat(policy.getMaxWildcardFilters()).isEqualTo(QueryPolicy.UNLIMITED);
+                assertThat(policy.getTimeoutMs()).isEqualTo(1000);
+
+                List<SearchCriteria> wildcards = Collections.nCopies(30,
+                                new SearchCriteria("lastName", CrudOperator.CONTAINS, "a", null));
+                policy.check(wildcards);
+                assertThatThrownBy(() -> defaults.check(wildcards)).isInstanceOf(QueryLimitException.class);
+        }
+
+        @QueryLimits(maxFilters = QueryPolicy.UNLIMITED, maxWildcardFilters = QueryPolicy.UNLIMITED)
+        private static class Unlimited {
+        }
+
+        private ResultActions request(String url) throws Exception {
+                return mvc.perform(get(url));
+        }
+}
@@ -0,0 +1,203 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.metadata.EntityDescriptor;
+import com.example.base_pulse.metadata.EntityMetadataRegistry;
+import com.example.base_pulse.services.DynamicQueryService;
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.PageCriteria;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.PageResult;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class QueryPlanCacheTest {
+
+        @Autowired
+        private DynamicQueryService dynamicQueryService;
+
+        @Autowired
+        private PersonService personService;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Autowired
+        private EntityMetadataRegistry registry;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        private Statistics statistics;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        for (int i = 0; i < 40; i++) {
+                                personRepository.save(new Person("first" + (i % 7), "last" + i, i % 10,
+                                                new Address("city" + (i % 3))));
+                        }
+                }
+
+                statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        }
+
+        @Test
+        void repeatedShapesWithDifferentValues_hitThePlanCache() {
+                // first pass compiles one plan per shape
+                runShapes(0);
+                statistics.clear();
+
+                int rounds = 20;
+                for (int i = 1; i <= rounds; i++) {
+                        runShapes(i);
+                }
+
+                long hits = statistics.getQueryPlanCacheHitCount();
+                long misses = statistics.getQueryPlanCacheMissCount();
+                System.out.printf("query plan cache: %d hits, %d misses, hit ratio %.2f%n",
+                                hits, misses, hits / (double) (hits + misses));
+
+                assertThat(misses).isZero();
+                assertThat(hits).isGreaterThanOrEqualTo(rounds * 5L);
+        }
+
+        @Test
+        void onABoundSession_hitsThePlanCacheAndKeepsItsCopySetting() {
+                runShapes(0);
+                statistics.clear();
+
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                        SharedSessionContractImplementor session = entityManager
+                                        .unwrap(SharedSessionContractImplementor.class);
+                        boolean copyTree = session.isCriteriaCopyTreeEnabled();
+
+                        for (int i = 1; i <= 5; i++) {
+                                runShapes(i);
+                        }
+
+                        assertThat(session.isCriteriaCopyTreeEnabled()).isEqualTo(copyTree);
+                });
+
+                assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+                assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThanOrEqualTo(25L);
+        }
+
+        @Test
+        void inListsOfOneBucket_shareAPlan() {
+                dynamicQueryService.findList("Person", List.of("id"),
+                                List.of(new SearchCriteria("age", CrudOperator.IN, values(5, 0), null)),
+                                List.of(), PageRequest.of(0, 10));
+                statistics.clear();
+
+                // 5..8 values all pad up to 8 parameters
+                for (int n = 5; n <= 8; n++) {
+                        PageResult<Map<String, Object>> result = dynamicQueryService.findList("Person", List.of("id"),
+                                        List.of(new SearchCriteria("age", CrudOperator.IN, values(n, 1), null)),
+                                        List.of(), PageRequest.of(0, 50));
+                        assertThat(result.getTotal()).isEqualTo(4L * n);
+                }
+
+                assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+        }
+
+        @Test
+        void filterPlans_areSharedPerShape() {
+                EntityDescriptor person = registry.get(Person.class);
+
+                assertThat(person.plan(new SearchCriteria("age", CrudOperator.EQ, "1", null)))
+                                .isSameAs(person.plan(new SearchCriteria("age", CrudOperator.EQ, "7", null)));
+                assertThat(person.plan(new SearchCriteria("age", CrudOperator.EQ, "1", null)))
+                                .isNotSameAs(person.plan(new SearchCriteria("age", CrudOperator.GT, "1", null)))
+                                .isNotSameAs(person.plan(new SearchCriteria("lastName", CrudOperator.EQ, "1", null)));
+        }
+
+        @Test
+        void newShape_compilesItsPlanOnce() {
+                List<SearchCriteria> shape = List.of(new SearchCriteria("lastName", CrudOperator.NE, "x", null),
+                                new SearchCriteria("age", CrudOperator.LT, "9", null));
+                List<SortCriteria> sort = List.of(new SortCriteria("firstName", Sort.Direction.ASC));
+                PageRequest page = PageRequest.of(0, 5);
+
+                dynamicQueryService.findList("Person", List.of("id", "age"),
+                                List.of(new SearchCriteria("age", CrudOperator.EQ, "3", null)), sort, page);
+                statistics.clear();
+
+                // same shape, other value: no new plan
+                dynamicQueryService.findList("Person", List.of("id", "age"),
+                                List.of(new SearchCriteria("age", CrudOperator.EQ, "4", null)), sort, page);
+                assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+
+                // a shape not seen before compiles a plan, once
+                dynamicQueryService.findList("Person", List.of("id", "age"), shape, sort, page);
+                long misses = statistics.getQueryPlanCacheMissCount();
+                assertThat(misses).isPositive();
+
+                dynamicQueryService.findList("Person", List.of("id", "age"),
+                                List.of(new SearchCriteria("lastName", CrudOperator.NE, "y", null),
+                                                new SearchCriteria("age", CrudOperator.LT, "5", null)),
+                                sort, page);
+                assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(misses);
+        }
+
+        private void runShapes(int i) {
+                PageRequest page = PageRequest.of(0, 5);
+                List<SortCriteria> sort = List.of(new SortCriteria("lastName", Sort.Direction.DESC));
+
+                // equality + like, with an exact count
+                dynamicQueryService.findList("Person", List.of("id", "firstName"),
+                                List.of(new SearchCriteria("age", CrudOperator.EQ, String.valueOf(i % 10), null),
+                                                new SearchCriteria("firstName", CrudOperator.CONTAINS, "first" + (i % 7), null)),
+                                sort, page);
+
+                // keyset continuation from a cursor
+                PageResult<Map<String, Object>> first = dynamicQueryService.findList("Person", List.of("id"),
+                                List.of(new SearchCriteria("age", CrudOperator.GTE, String.valueOf(i % 5), null)),
+                                sort, page, PageCriteria.keyset(null));
+                dynamicQueryService.findList("Person", List.of("id"),
+                                List.of(new SearchCriteria("age", CrudOperator.GTE, String.valueOf(i % 5), null)),
+                                sort, page, PageCriteria.keyset(first.getNextCursor()));
+
+                // generic service path: between on a to-one attribute
+                personService.findAll(page,
+                                List.of(new SearchCriteria("age", CrudOperator.BETWEEN, String.valueOf(i % 4),
+                                                String.valueOf(i % 4 + 3))),
+                                sort);
+        }
+
+        private static List<String> values(int n, int start) {
+                List<String> values = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                        values.add(String.valueOf(start + i));
+                }
+                return values;
+        }
+}
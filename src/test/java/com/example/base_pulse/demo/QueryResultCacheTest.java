@@ -0,0 +1,125 @@
+package com.example.base_pulse.demo;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.example.base_pulse.cache.QueryResultCache;
+import com.example.base_pulse.services.DynamicQueryService;
+import com.example.base_pulse.specifications.SortCriteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:resultcache")
+public class QueryResultCacheTest {
+
+        private static final List<SortCriteria> BY_ID = List.of(new SortCriteria("id", Sort.Direction.ASC));
+
+        @Autowired
+        private DynamicQueryService dynamicQueryService;
+
+        @Autowired
+        private QueryResultCache resultCache;
+
+        @Autowired
+        private DeviceService deviceService;
+
+        @Autowired
+        private SensorService sensorService;
+
+        @Autowired
+        private SiteService siteService;
+
+        @Autowired
+        private DeviceRepository deviceRepository;
+
+        @Autowired
+        private SiteRepository siteRepository;
+
+        private Site site;
+        private Device device;
+
+        @BeforeEach
+        void setup() {
+                deviceRepository.deleteAll();
+                siteRepository.deleteAll();
+                resultCache.clear();
+                site = siteService.create(new Site("north"));
+                device = deviceService.create(new Device("pump", site));
+        }
+
+        @Test
+        void repeatedQuery_isServedFromTheCache() {
+                List<Map<String, Object>> first = devices();
+                long hits = resultCache.stats().hits();
+
+                assertThat(devices()).isEqualTo(first);
+                assertThat(resultCache.stats().hits()).isEqualTo(hits + 1);
+
+                // writes that bypass BaseServiceImpl are not seen until the TTL ends
+                device.setName("bypassed");
+                deviceRepository.save(device);
+                assertThat(devices()).isEqualTo(first);
+        }
+
+        @Test
+        void writeThroughTheService_invalidatesItsPages() {
+                devices();
+
+                deviceService.patch(device.getId(), new Device("valve", null));
+
+                assertThat(names(devices())).contains("valve").doesNotContain("pump");
+        }
+
+        @Test
+        void writeToASubtype_invalidatesPagesOfTheParent() {
+                devices();
+
+                Sensor sensor = sensorService.create(new Sensor("probe", site, "C"));
+
+                assertThat(devices()).extracting(row -> row.get("id")).contains(sensor.getId());
+        }
+
+        @Test
+        void writeThroughTheParentService_invalidatesPagesOfTheSubtype() {
+                Sensor sensor = sensorService.create(new Sensor("probe", site, "C"));
+                sensors();
+
+                deviceService.patch(sensor.getId(), new Device("gauge", null));
+
+                assertThat(names(sensors())).contains("gauge").doesNotContain("probe");
+        }
+
+        @Test
+        void writeToARelatedEntity_invalidatesPagesThatReachIt() {
+                devices();
+
+                siteService.patch(site.getId(), new Site("south"));
+
+                assertThat(devices()).extracting(row -> row.get("site.name")).contains("south").doesNotContain("north");
+        }
+
+        private List<Map<String, Object>> devices() {
+                return page("Device");
+        }
+
+        private List<Map<String, Object>> sensors() {
+                return page("Sensor");
+        }
+
+        private List<Map<String, Object>> page(String entity) {
+                return dynamicQueryService.findList(entity, List.of("id", "name", "site.name"), List.of(), BY_ID,
+                                PageRequest.of(0, 50)).getContent();
+        }
+
+        private static List<Object> names(List<Map<String, Object>> rows) {
+                return rows.stream().map(row -> row.get("name")).toList();
+        }
+}
@@ -0,0 +1,148 @@
+package com.example.base_pulse.demo;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Heap and CPU per page of 1,000 entities, loaded writable (as before) and
+// with the read-only hints BaseServiceImpl now sets. "plain" is the service
+// path outside a transaction; "commit" adds a transaction whose flush dirty
+// checks every writable entity.
+// Run with: mvn test -Dtest=ReadOnlyBenchmarkTest -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+// open entity managers hold their connection, hence the larger pool
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:readonlybench",
+                "spring.datasource.hikari.maximum-pool-size=40" })
+public class ReadOnlyBenchmarkTest {
+
+        private static final int PAGE = 1_000;
+        private static final int ROUNDS = 300;
+        // pages held open at once when measuring retained heap
+        private static final int HELD = 30;
+
+        private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+                        .getThreadMXBean();
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Test
+        void readOnlyVsWritablePages() throws Exception {
+                insertPage();
+
+                // warm up the JIT and the query plan cache
+                for (int i = 0; i < ROUNDS; i++) {
+                        page(false, i % 2 == 0);
+                        page(true, i % 2 == 0);
+                }
+
+                StringBuilder report = new StringBuilder(String.format("%-10s %-7s %14s %12s %14s%n",
+                                "entities", "tx", "alloc KB/page", "cpu ms/page", "retained KB/page"));
+                long[] writable = measure(false, false, report);
+                long[] readOnly = measure(true, false, report);
+                measure(false, true, report);
+                measure(true, true, report);
+
+                System.out.print(report);
+                Files.writeString(Path.of("target", "read-only-report.txt"), report);
+
+                assertThat(readOnly[2]).isLessThan(writable[2]);
+        }
+
+        // alloc bytes, cpu nanos and retained bytes per page; allocation stays the
+        // same because the snapshot is the hydrated state array itself, which a
+        // read-only entity just does not keep
+        private long[] measure(boolean readOnly, boolean commit, StringBuilder report) {
+                long allocated = THREADS.getCurrentThreadAllocatedBytes();
+                long cpu = THREADS.getCurrentThreadCpuTime();
+                for (int i = 0; i < ROUNDS; i++) {
+                        page(readOnly, commit);
+                }
+                long allocPerPage = (THREADS.getCurrentThreadAllocatedBytes() - allocated) / ROUNDS;
+                long cpuPerPage = (THREADS.getCurrentThreadCpuTime() - cpu) / ROUNDS;
+                // what stays behind does not depend on the commit, so it is measured once
+                long retainedPerPage = commit ? -1 : retained(readOnly);
+
+                report.append(String.format("%-10s %-7s %14.1f %12.3f %14s%n",
+                                readOnly ? "read-only" : "writable", commit ? "commit" : "plain",
+                                allocPerPage / 1024.0, cpuPerPage / 1e6,
+                                commit ? "-" : String.format("%.1f", retainedPerPage / 1024.0)));
+                return new long[] { allocPerPage, cpuPerPage, retainedPerPage };
+        }
+
+        private void page(boolean readOnly, boolean commit) {
+                EntityManager em = entityManagerFactory.createEntityManager();
+                try {
+                        if (commit) {
+                                em.getTransaction().begin();
+                        }
+                        assertThat(query(em, readOnly).getResultList()).hasSize(PAGE);
+                        if (commit) {
+                                em.getTransaction().commit();
+                        }
+                } finally {
+                        em.close();
+                }
+        }
+
+        // what an open-in-view session keeps until the response is written
+        private long retained(boolean readOnly) {
+                long before = usedHeap();
+                List<EntityManager> open = new ArrayList<>();
+                List<List<Person>> pages = new ArrayList<>();
+                for (int i = 0; i < HELD; i++) {
+                        EntityManager em = entityManagerFactory.createEntityManager();
+                        open.add(em);
+                        pages.add(query(em, readOnly).getResultList());
+                }
+                long held = usedHeap() - before;
+                open.forEach(EntityManager::close);
+                assertThat(pages).hasSize(HELD);
+                return held / HELD;
+        }
+
+        private static TypedQuery<Person> query(EntityManager em, boolean readOnly) {
+                TypedQuery<Person> query = em.createQuery("select p from Person p order by p.id", Person.class)
+                                .setMaxResults(PAGE);
+                if (readOnly) {
+                        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+                        query.setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+                }
+                return query;
+        }
+
+        private static long usedHeap() {
+                for (int i = 0; i < 3; i++) {
+                        System.gc();
+                }
+                Runtime runtime = Runtime.getRuntime();
+                return runtime.totalMemory() - runtime.freeMemory();
+        }
+
+        private void insertPage() {
+                EntityManager em = entityManagerFactory.createEntityManager();
+                em.getTransaction().begin();
+                for (int i = 0; i < PAGE; i++) {
+                        em.persist(new Person("first" + i, "last" + i, i % 90, null));
+                }
+                em.getTransaction().commit();
+                em.close();
+        }
+}
@@ -0,0 +1,75 @@
+package com.example.base_pulse.demo;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.base_pulse.specifications.PageCriteria;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:readonly")
+public class ReadOnlyReadsTest {
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Autowired
+        private PersonService personService;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Test
+        void readsInAnOpenSession_areReadOnly_andAWriteAfterThemStillLands() {
+                Long id = personRepository.save(new Person("ann", "a", 30, null)).getId();
+
+                // one session for the whole "request", as with open-in-view
+                EntityManager em = entityManagerFactory.createEntityManager();
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(em));
+                try {
+                        Session session = em.unwrap(Session.class);
+
+                        Person read = personService.findById(id);
+                        List<Person> page = personService.findAll(Pageable.ofSize(10), List.of(), List.of(),
+                                        PageCriteria.offset()).getContent();
+                        assertThat(session.isReadOnly(read)).isTrue();
+                        assertThat(page).allMatch(session::isReadOnly);
+
+                        Person partial = new Person();
+                        partial.setAge(31);
+                        personService.patch(id, partial);
+                        assertThat(committed(id).getAge()).isEqualTo(31);
+
+                        Person full = new Person("anne", "a", 32, null);
+                        personService.replace(id, full);
+                } finally {
+                        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+                        em.close();
+                }
+
+                Person stored = committed(id);
+                assertThat(stored.getFirstName()).isEqualTo("anne");
+                assertThat(stored.getAge()).isEqualTo(32);
+        }
+
+        // read on a session of its own, past the one bound to the thread
+        private Person committed(Long id) {
+                EntityManager em = entityManagerFactory.createEntityManager();
+                try {
+                        return em.find(Person.class, id);
+                } finally {
+                        em.close();
+                }
+        }
+}
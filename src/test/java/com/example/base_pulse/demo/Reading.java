@@ -0,0 +1,32 @@
+package com.example.base_pulse.demo;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+import com.example.base_pulse.entities.BaseEntity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// sort keys of every type a keyset cursor has to carry, all nullable
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reading extends BaseEntity {
+    private BigDecimal amount;
+    private Instant takenAt;
+    private UUID ref;
+    private Short level;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date recordedOn;
+}
@@ -0,0 +1,18 @@
+package com.example.base_pulse.demo;
+
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.base_pulse.controllers.BaseController;
+import com.example.base_pulse.controllers.annotations.DisableCrud;
+
+// read-only: every write, single or batch, answers 405
+@RestController
+@RequestMapping("/readings")
+@DisableCrud(create = true, update = true, delete = true)
+public class ReadingController extends BaseController<Reading> {
+
+    public ReadingController(ReadingService service) {
+        super(service);
+    }
+}
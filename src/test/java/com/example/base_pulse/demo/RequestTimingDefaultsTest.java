@@ -0,0 +1,47 @@
+package com.example.base_pulse.demo;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:timingdefaults")
+@AutoConfigureMockMvc
+public class RequestTimingDefaultsTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Test
+        void timingIsOffUnlessEnabled() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/persons")).andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getHeader("Server-Timing")).isNull();
+                mvc.perform(get("/metrics/requests")).andExpect(status().isNotFound());
+                assertThat(entityManagerFactory.getProperties()).doesNotContainKey(AvailableSettings.STATEMENT_INSPECTOR);
+        }
+
+        @Test
+        void metricsEndpointsAreOffUnlessEnabled() throws Exception {
+                mvc.perform(get("/metrics/slow-queries")).andExpect(status().isNotFound());
+                mvc.perform(delete("/metrics/slow-queries")).andExpect(status().isNotFound());
+                mvc.perform(get("/metrics/indexes")).andExpect(status().isNotFound());
+                mvc.perform(get("/metrics/bulkheads")).andExpect(status().isNotFound());
+        }
+}
+
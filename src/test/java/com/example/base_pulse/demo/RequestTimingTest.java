@@ -0,0 +1,92 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.metrics.RequestMetrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "base-pulse.timing.enabled=true",
+                "base-pulse.timing.header-counts=true",
+                "base-pulse.json.skip-unloaded=true" })
+@AutoConfigureMockMvc
+public class RequestTimingTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Autowired
+        private RequestMetrics metrics;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        for (int i = 0; i < 10; i++) {
+                                personRepository.save(new Person("first" + i, "last" + i, i, null));
+                        }
+                }
+                metrics.reset();
+        }
+
+        @Test
+        void dynamicQuery_reportsPhasesInServerTiming() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/dynamic/Person")
+                                .param("fields", "id,firstName")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "gte")
+                                .param("filters[0][value]", "2")
+                                .param("size", "3"))
+                                .andReturn().getResponse();
+
+                String timing = response.getHeader("Server-Timing");
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(timing).contains("parse;dur=", "plan;dur=", "query;dur=", "count;dur=", "map;dur=",
+                                "total;dur=");
+                // the header goes out before the body, so serialization is only in the metrics
+                assertThat(timing).doesNotContain("serialize");
+                // data query plus count query; size + 1 rows fetched to detect the next page
+                assertThat(timing).contains("sql;desc=\"2\"", "rows;desc=\"4\"");
+        }
+
+        @Test
+        void requests_areAggregatedPerEntityAndOperation() throws Exception {
+                for (int i = 0; i < 3; i++) {
+                        mvc.perform(get("/persons").param("size", "5"));
+                }
+
+                assertThat(metrics.snapshot())
+                                .filteredOn(s -> s.entity().equals("Person") && s.operation().equals("getAll"))
+                                .singleElement()
+                                .satisfies(s -> {
+                                        assertThat(s.total().count()).isEqualTo(3);
+                                        assertThat(s.phases()).containsKeys("parse", "plan", "query", "count",
+                                                        "serialize");
+                                });
+
+                String body = mvc.perform(get("/metrics/requests")).andReturn().getResponse().getContentAsString();
+                assertThat(body).contains("\"operation\":\"getAll\"");
+        }
+
+        @Test
+        void streams_passThroughUnbuffered() throws Exception {
+                MvcResult started = mvc.perform(get("/dynamic/Person/stream").param("fields", "id")).andReturn();
+                MockHttpServletResponse response = mvc.perform(asyncDispatch(started)).andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString().lines()).hasSize((int) personRepository.count());
+        }
+}
@@ -0,0 +1,28 @@
+package com.example.base_pulse.demo;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:timingnocounts",
+                "base-pulse.timing.enabled=true" })
+@AutoConfigureMockMvc
+public class RequestTimingWithoutCountsTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Test
+        void countsStayOutOfTheHeaderUnlessAskedFor() throws Exception {
+                String timing = mvc.perform(get("/persons")).andReturn().getResponse().getHeader("Server-Timing");
+
+                assertThat(timing).contains("query;dur=", "total;dur=").doesNotContain("sql;", "rows;");
+        }
+}
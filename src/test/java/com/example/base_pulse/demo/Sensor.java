@@ -0,0 +1,22 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.entities.annotations.CachedQueries;
+
+import jakarta.persistence.Entity;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@CachedQueries(ttlSeconds = 600)
+@Getter
+@Setter
+@NoArgsConstructor
+public class Sensor extends Device {
+    private String unit;
+
+    public Sensor(String name, Site site, String unit) {
+        super(name, site);
+        this.unit = unit;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.utils.SingleFlight;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+        @Test
+        void concurrentCallersWithOneKey_shareOneExecution() throws Exception {
+                SingleFlight<String, List<Integer>> flights = new SingleFlight<>();
+                AtomicInteger loads = new AtomicInteger();
+                CountDownLatch release = new CountDownLatch(1);
+                int followers = 8;
+
+                ExecutorService pool = Executors.newFixedThreadPool(followers + 1);
+                try {
+                        Future<List<Integer>> leader = pool.submit(() -> flights.execute("q", () -> {
+                                loads.incrementAndGet();
+                                await(release);
+                                return List.of(1, 2, 3);
+                        }, ArrayList::new));
+
+                        while (flights.stats().inFlight() == 0) {
+                                Thread.onSpinWait();
+                        }
+
+                        List<Future<List<Integer>>> joined = new ArrayList<>();
+                        for (int i = 0; i < followers; i++) {
+                                joined.add(pool.submit(() -> flights.execute("q", () -> {
+                                        loads.incrementAndGet();
+                                        return List.of();
+                                }, ArrayList::new)));
+                        }
+
+                        while (flights.stats().coalesced() < followers) {
+                                Thread.onSpinWait();
+                        }
+                        release.countDown();
+
+                        assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly(1, 2, 3);
+                        for (Future<List<Integer>> f : joined) {
+                                assertThat(f.get(5, TimeUnit.SECONDS)).containsExactly(1, 2, 3);
+                        }
+                } finally {
+                        pool.shutdownNow();
+                }
+
+                assertThat(loads).hasValue(1);
+                SingleFlight.Stats stats = flights.stats();
+                assertThat(stats.executions()).isEqualTo(1);
+                assertThat(stats.coalesced()).isEqualTo(followers);
+                assertThat(stats.inFlight()).isZero();
+        }
+
+        @Test
+        void failedLoad_isNotRemembered() {
+                SingleFlight<String, String> flights = new SingleFlight<>();
+
+                assertThatThrownBy(() -> flights.execute("q", () -> {
+                        throw new IllegalArgumentException("bad filter");
+                }, s -> s)).isInstanceOf(IllegalArgumentException.class);
+
+                assertThat(flights.execute("q", () -> "ok", s -> s)).isEqualTo("ok");
+        }
+
+        private static void await(CountDownLatch latch) {
+                try {
+                        latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+}
@@ -0,0 +1,18 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.entities.BaseEntity;
+
+import jakarta.persistence.Entity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Site extends BaseEntity {
+    private String name;
+}
@@ -0,0 +1,96 @@
+package com.example.base_pulse.demo;
+
+import com.example.base_pulse.metrics.SlowQueryLog;
+import com.example.base_pulse.services.DynamicQueryService;
+import com.example.base_pulse.specifications.CrudOperator;
+import com.example.base_pulse.specifications.PageCriteria;
+import com.example.base_pulse.specifications.SearchCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a zero threshold records every query; SQL text is only captured with timing on
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "base-pulse.slow-query.threshold-ms=0",
+                "base-pulse.timing.enabled=true" })
+public class SlowQueryLogTest {
+
+        @Autowired
+        private DynamicQueryService dynamicQueryService;
+
+        @Autowired
+        private PersonService personService;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Autowired
+        private SlowQueryLog slowQueries;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        for (int i = 0; i < 10; i++) {
+                                personRepository.save(new Person("first" + i, "last" + i, i, null));
+                        }
+                }
+                slowQueries.reset();
+        }
+
+        @Test
+        void sameShape_isFoldedIntoOneEntryWithoutValues() {
+                for (int age = 1; age <= 3; age++) {
+                        dynamicQueryService.findList("Person", List.of("id", "firstName"),
+                                        List.of(new SearchCriteria("age", CrudOperator.GTE, String.valueOf(age))),
+                                        List.of(new SortCriteria("lastName", Sort.Direction.DESC)),
+                                        PageRequest.of(0, 5), PageCriteria.offset());
+                }
+
+                assertThat(slowQueries.snapshot())
+                                .filteredOn(s -> s.shape().operation().equals("findDynamic"))
+                                .singleElement()
+                                .satisfies(s -> {
+                                        assertThat(s.count()).isEqualTo(3);
+                                        assertThat(s.shape().fields()).containsExactly("id", "firstName");
+                                        assertThat(s.shape().filters())
+                                                        .containsExactly(new SlowQueryLog.Filter("age", "gte", null));
+                                        assertThat(s.shape().sort()).containsExactly("lastName:desc");
+                                        assertThat(s.samples()).isEmpty();
+
+                                        SlowQueryLog.SlowQuery slowest = s.slowest();
+                                        assertThat(slowest.filters()).extracting(SlowQueryLog.Filter::value)
+                                                        .containsOnlyNulls();
+                                        assertThat(slowest.size()).isEqualTo(5);
+                                        assertThat(slowest.rows()).isPositive();
+                                        assertThat(slowest.phases()).containsKeys("plan", "query");
+                                        assertThat(slowest.sql()).isNotEmpty()
+                                                        .allSatisfy(sql -> assertThat(sql).containsIgnoringCase("person"));
+                                });
+        }
+
+        @Test
+        void serviceFindAll_isRecorded() {
+                personService.findAll(PageRequest.of(1, 3),
+                                List.of(new SearchCriteria("firstName", CrudOperator.STARTSWITH, "first")),
+                                List.of(), PageCriteria.offset());
+
+                assertThat(slowQueries.snapshot())
+                                .filteredOn(s -> s.shape().operation().equals("findAll"))
+                                .singleElement()
+                                .satisfies(s -> {
+                                        assertThat(s.shape().entity()).isEqualTo("Person");
+                                        assertThat(s.slowest().offset()).isEqualTo(3);
+                                        assertThat(s.slowest().phases()).containsKeys("query", "count");
+                                });
+        }
+}
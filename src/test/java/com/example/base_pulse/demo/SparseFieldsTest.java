@@ -0,0 +1,92 @@
+package com.example.base_pulse.demo;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.base_pulse.repositories.DynamicJpaRepository;
+import com.example.base_pulse.specifications.PageCriteria;
+import com.example.base_pulse.specifications.SortCriteria;
+import com.example.base_pulse.utils.PageResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:sparse")
+@AutoConfigureMockMvc
+public class SparseFieldsTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Autowired
+        private DynamicJpaRepository dynamicRepository;
+
+        private Long annId;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        personRepository.save(new Person("ann", "a", 30, new Address("paris")));
+                        personRepository.save(new Person("bob", "b", 40, null));
+                        personRepository.save(new Person("cid", "c", 50, new Address("berlin")));
+                }
+                annId = personRepository.findAll().stream().filter(p -> p.getFirstName().equals("ann"))
+                                .findFirst().orElseThrow().getId();
+        }
+
+        @Test
+        void listWithFields_returnsOnlyThoseFields() throws Exception {
+                MockHttpServletResponse response = mvc.perform(get("/persons")
+                                .param("fields", "firstName,address.city")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "gte")
+                                .param("filters[0][value]", "40")
+                                .param("sort[0][field]", "age")
+                                .param("sort[0][order]", "desc")
+                                .param("count", "exact"))
+                                .andReturn().getResponse();
+
+                assertThat(response.getStatus()).isEqualTo(200);
+                assertThat(response.getContentAsString()).contains(
+                                "[{\"firstName\":\"cid\",\"address.city\":\"berlin\"},"
+                                                + "{\"firstName\":\"bob\",\"address.city\":null}]",
+                                "\"total\":2")
+                                .doesNotContain("lastName");
+        }
+
+        @Test
+        void singleEntityWithFields_returnsOneRow() throws Exception {
+                String body = mvc.perform(get("/persons/" + annId).param("fields", "firstName,age"))
+                                .andReturn().getResponse().getContentAsString();
+
+                assertThat(body).isEqualTo("{\"firstName\":\"ann\",\"age\":30}");
+        }
+
+        @Test
+        void restrictedProjection_appliesTheSpecificationToPageAndCount() {
+                Specification<Person> olderThan35 = (root, query, cb) -> cb.gt(root.get("age"), 35);
+                PageCriteria page = PageCriteria.offset();
+
+                PageResult<Map<String, Object>> result = dynamicRepository.findRestricted("Person",
+                                List.of("firstName"), olderThan35,
+                                List.of(new SortCriteria("firstName", Sort.Direction.ASC)), Pageable.ofSize(1), page);
+
+                assertThat(result.getContent()).containsExactly(Map.of("firstName", "bob"));
+                assertThat(result.getTotal()).isEqualTo(2);
+        }
+}
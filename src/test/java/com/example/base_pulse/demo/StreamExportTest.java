@@ -0,0 +1,173 @@
+package com.example.base_pulse.demo;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.base_pulse.bulkhead.EntityBulkheads;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = DemoApplication.class, properties = {
+                "spring.datasource.url=jdbc:h2:mem:stream",
+                "base-pulse.limits.max-filters=2",
+                "base-pulse.bulkhead.enabled=true",
+                "base-pulse.bulkhead.entity.Person.permits=1",
+                "base-pulse.bulkhead.entity.Person.queue-depth=0" })
+@AutoConfigureMockMvc
+public class StreamExportTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private PersonRepository personRepository;
+
+        @Autowired
+        private EntityBulkheads bulkheads;
+
+        @Autowired
+        private ObjectMapper mapper;
+
+        @BeforeEach
+        void setup() {
+                if (personRepository.count() == 0) {
+                        personRepository.save(new Person("ann", "plain", 30, new Address("paris")));
+                        personRepository.save(new Person("bob", "comma, inside", 31, null));
+                        personRepository.save(new Person("cid", "say \"hi\"", 32, null));
+                        personRepository.save(new Person("dan", "two\nlines", 33, null));
+                        personRepository.save(new Person("eve", null, 34, null));
+                }
+        }
+
+        @Test
+        void ndjson_writesOneObjectPerLine() throws Exception {
+                MockHttpServletResponse response = stream(get("/dynamic/Person/stream")
+                                .param("fields", "firstName,age,address.city")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "lte")
+                                .param("filters[0][value]", "32")
+                                .param("sort[0][field]", "age")
+                                .param("sort[0][order]", "asc"));
+
+                assertThat(response.getContentType()).startsWith("application/x-ndjson");
+                assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                                .isEqualTo("attachment; filename=\"Person.ndjson\"");
+
+                String[] lines = response.getContentAsString().split("\n", -1);
+                assertThat(lines).hasSize(4);
+                assertThat(lines[3]).isEmpty();
+
+                JsonNode first = mapper.readTree(lines[0]);
+                assertThat(first.size()).isEqualTo(3);
+                assertThat(first.get("firstName").asText()).isEqualTo("ann");
+                assertThat(first.get("age").asInt()).isEqualTo(30);
+                assertThat(first.get("address.city").asText()).isEqualTo("paris");
+                assertThat(mapper.readTree(lines[1]).get("address.city").isNull()).isTrue();
+                assertThat(mapper.readTree(lines[2]).get("firstName").asText()).isEqualTo("cid");
+        }
+
+        @Test
+        void csv_quotesSeparatorsQuotesAndLineBreaks() throws Exception {
+                MockHttpServletResponse response = stream(get("/dynamic/Person/stream")
+                                .param("format", "csv")
+                                .param("fields", "firstName,lastName")
+                                .param("sort[0][field]", "age")
+                                .param("sort[0][order]", "asc"));
+
+                assertThat(response.getContentType()).startsWith("text/csv");
+                assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION))
+                                .isEqualTo("attachment; filename=\"Person.csv\"");
+                assertThat(response.getContentAsString()).isEqualTo(String.join("\r\n",
+                                "firstName,lastName",
+                                "ann,plain",
+                                "bob,\"comma, inside\"",
+                                "cid,\"say \"\"hi\"\"\"",
+                                "dan,\"two\nlines\"",
+                                "eve,",
+                                ""));
+        }
+
+        @Test
+        void queryPolicy_appliesBeforeStreaming() throws Exception {
+                mvc.perform(get("/dynamic/Person/stream")
+                                .param("filters[0][field]", "age")
+                                .param("filters[0][operator]", "gt")
+                                .param("filters[0][value]", "1")
+                                .param("filters[1][field]", "age")
+                                .param("filters[1][operator]", "lt")
+                                .param("filters[1][value]", "90")
+                                .param("filters[2][field]", "firstName")
+                                .param("filters[2][operator]", "eq")
+                                .param("filters[2][value]", "ann"))
+                                .andExpect(status().isBadRequest());
+
+                // @QueryLimits on Address allows filters on id and city only
+                mvc.perform(get("/dynamic/Address/stream")
+                                .param("filters[0][field]", "createdAt")
+                                .param("filters[0][operator]", "gt")
+                                .param("filters[0][value]", "2020-01-01T00:00:00"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void stream_takesABulkheadPermit() throws Exception {
+                long admitted = admitted();
+                stream(get("/dynamic/Person/stream"));
+                assertThat(admitted()).isEqualTo(admitted + 1);
+
+                // the only permit is held elsewhere and nobody may queue: 503
+                CountDownLatch holding = new CountDownLatch(1);
+                CountDownLatch release = new CountDownLatch(1);
+                ExecutorService pool = Executors.newSingleThreadExecutor();
+                try {
+                        pool.submit(() -> bulkheads.run("Person", () -> {
+                                holding.countDown();
+                                await(release);
+                        }));
+                        assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+                        MvcResult started = mvc.perform(get("/dynamic/Person/stream")).andReturn();
+                        mvc.perform(asyncDispatch(started))
+                                        .andExpect(status().isServiceUnavailable());
+                } finally {
+                        release.countDown();
+                        pool.shutdown();
+                }
+        }
+
+        private MockHttpServletResponse stream(MockHttpServletRequestBuilder request) throws Exception {
+                MvcResult started = mvc.perform(request).andReturn();
+                return mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn().getResponse();
+        }
+
+        private long admitted() {
+                return bulkheads.stats().containsKey("Person") ? bulkheads.stats().get("Person").admitted() : 0;
+        }
+
+        private static void await(CountDownLatch latch) {
+                try {
+                        latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+}
@@ -0,0 +1,13 @@
+package com.example.base_pulse.demo;
+
+import org.springframework.stereotype.Service;
+
+import com.example.base_pulse.services.BaseServiceImpl;
+
+@Service
+public class TagService extends BaseServiceImpl<Tag> {
+
+    public TagService(TagRepository repository) {
+        super(repository);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.base_pulse.demo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:tomany")
+@AutoConfigureMockMvc
+public class ToManyFilterTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private EntityManager em;
+
+        @Autowired
+        private TransactionTemplate tx;
+
+        @BeforeEach
+        void setup() {
+                tx.executeWithoutResult(status -> {
+                        if (em.createQuery("select count(c) from Customer c", Long.class).getSingleResult() > 0) {
+                                return;
+                        }
+                        // ann: three paid orders, one of them large; bob: a large pending order and a small
+                        // paid one; cid: no orders
+                        Customer ann = customer("ann", "PAID", 50, "PAID", 60, "PAID", 500);
+                        Customer bob = customer("bob", "PENDING", 700, "PAID", 20);
+                        Customer cid = customer("cid");
+                        em.persist(ann);
+                        em.persist(bob);
+                        em.persist(cid);
+                        for (Customer c : new Customer[] { ann, bob, cid }) {
+                                c.getOrders().forEach(em::persist);
+                        }
+                });
+        }
+
+        @Test
+        void toManyFilter_neitherDuplicatesRowsNorInflatesTheCount() throws Exception {
+                String body = query("filters[0][field]", "orders.status",
+                                "filters[0][operator]", "eq",
+                                "filters[0][value]", "PAID").getContentAsString();
+
+                assertThat(body).contains("\"name\":\"ann\"", "\"name\":\"bob\"", "\"total\":2")
+                                .containsOnlyOnce("\"name\":\"ann\"")
+                                .doesNotContain("\"name\":\"cid\"");
+        }
+
+        @Test
+        void filtersOnOneCollection_matchTheSameElement() throws Exception {
+                // bob has a paid order and an order over 100, but no paid order over 100
+                String body = query("filters[0][field]", "orders.status",
+                                "filters[0][operator]", "eq",
+                                "filters[0][value]", "PAID",
+                                "filters[1][field]", "name",
+                                "filters[1][operator]", "ne",
+                                "filters[1][value]", "cid",
+                                "filters[2][field]", "orders.total",
+                                "filters[2][operator]", "gt",
+                                "filters[2][value]", "100").getContentAsString();
+
+                assertThat(body).contains("\"name\":\"ann\"", "\"total\":1").doesNotContain("\"name\":\"bob\"");
+        }
+
+        @Test
+        void baseController_getAll_filtersOnToManyPaths() throws Exception {
+                String body = mvc.perform(get("/customers")
+                                .param("filters[0][field]", "orders.total")
+                                .param("filters[0][operator]", "gt")
+                                .param("filters[0][value]", "100")
+                                .param("count", "exact"))
+                                .andReturn().getResponse().getContentAsString();
+
+                assertThat(body).contains("\"name\":\"ann\"", "\"name\":\"bob\"", "\"total\":2")
+                                .containsOnlyOnce("\"name\":\"ann\"")
+                                .doesNotContain("\"name\":\"cid\"");
+                // skip-unloaded is off by default, so lazy orders are still written
+                assertThat(body).contains("\"status\":\"PENDING\"");
+        }
+
+        @Test
+        void deleteAll_filtersOnToManyPaths() throws Exception {
+                tx.executeWithoutResult(status -> {
+                        Customer dee = customer("dee", "CANCELLED", 10, "PAID", 30);
+                        em.persist(dee);
+                        dee.getOrders().forEach(em::persist);
+                });
+
+                int status = mvc.perform(delete("/customers")
+                                .param("filters[0][field]", "orders.status")
+                                .param("filters[0][operator]", "eq")
+                                .param("filters[0][value]", "CANCELLED"))
+                                .andReturn().getResponse().getStatus();
+
+                assertThat(status).isEqualTo(204);
+                assertThat(em.createQuery("select c.name from Customer c order by c.name", String.class)
+                                .getResultList()).containsExactly("ann", "bob", "cid");
+        }
+
+        @Test
+        void toManyField_cannotBeSelected() throws Exception {
+                MvcResult result = mvc.perform(get("/dynamic/Customer").param("fields", "name,orders.status"))
+                                .andReturn();
+
+                assertThat(result.getResponse().getStatus()).isEqualTo(400);
+                assertThat(result.getResolvedException()).hasMessageContaining("can only be used in filters");
+        }
+
+        private MockHttpServletResponse query(String... params) throws Exception {
+                var request = get("/dynamic/Customer").param("fields", "id,name").param("count", "exact")
+                                .param("size", "10");
+                for (int i = 0; i < params.length; i += 2) {
+                        request.param(params[i], params[i + 1]);
+                }
+                return mvc.perform(request).andReturn().getResponse();
+        }
+
+        private static Customer customer(String name, Object... orders) {
+                Customer customer = new Customer(name);
+                for (int i = 0; i < orders.length; i += 2) {
+                        customer.getOrders().add(new PurchaseOrder((String) orders[i], (Integer) orders[i + 1], customer));
+                }
+                return customer;
+        }
+}
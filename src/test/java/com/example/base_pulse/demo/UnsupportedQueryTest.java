@@ -0,0 +1,60 @@
+package com.example.base_pulse.demo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.base_pulse.repositories.DynamicJpaRepository;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// fields on a service that runs without a DynamicJpaRepository bean
+@SpringBootTest(classes = DemoApplication.class, properties = "spring.datasource.url=jdbc:h2:mem:unsupported")
+@AutoConfigureMockMvc
+@DirtiesContext
+public class UnsupportedQueryTest {
+
+        @Autowired
+        private MockMvc mvc;
+
+        @Autowired
+        private CustomerService service;
+
+        private DynamicJpaRepository dynamicRepository;
+
+        @BeforeEach
+        void removeDynamicRepository() {
+                dynamicRepository = (DynamicJpaRepository) ReflectionTestUtils.getField(target(), "dynamicRepository");
+                ReflectionTestUtils.setField(target(), "dynamicRepository", null);
+        }
+
+        @AfterEach
+        void restoreDynamicRepository() {
+                ReflectionTestUtils.setField(target(), "dynamicRepository", dynamicRepository);
+        }
+
+        @Test
+        void fields_areABadRequest() throws Exception {
+                mvc.perform(get("/customers").param("fields", "id,name")).andExpect(status().isBadRequest());
+                mvc.perform(get("/customers/1").param("fields", "name")).andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void entityReads_stillWork() throws Exception {
+                mvc.perform(get("/customers")).andExpect(status().isOk());
+        }
+
+        // the service bean behind its transactional proxy
+        private Object target() {
+                return AopTestUtils.<Object>getUltimateTargetObject(service);
+        }
+}
@@ -0,0 +1,76 @@
+package com.example.base_pulse.load;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// Keeps every sample; a run of a few minutes stays in the low millions, and
+// exact percentiles beat bucket interpolation for spotting tail regressions.
+// One instance per worker thread, merged once the run is over.
+public class LatencyHistogram {
+
+        private long[] samples = new long[1024];
+        private int count;
+        private int errors;
+
+        public void record(long nanos, boolean ok) {
+                if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                }
+                samples[count++] = nanos;
+                if (!ok) {
+                        errors++;
+                }
+        }
+
+        public void merge(LatencyHistogram other) {
+                for (int i = 0; i < other.count; i++) {
+                        record(other.samples[i], true);
+                }
+                errors += other.errors;
+        }
+
+        public int count() {
+                return count;
+        }
+
+        public String report(String name, double seconds) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+
+                StringBuilder out = new StringBuilder();
+                out.append(String.format(Locale.ROOT,
+                                "%-22s %9d req %9.1f req/s %6d err   p50 %8.2f  p90 %8.2f  p99 %8.2f  p99.9 %8.2f  max %8.2f ms%n",
+                                name, count, count / seconds, errors,
+                                millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 0.999),
+                                count == 0 ? 0 : sorted[count - 1] / 1e6));
+
+                // power-of-two buckets from 0.25 ms up
+                double bound = 0.25;
+                int from = 0;
+                while (from < count) {
+                        int to = from;
+                        while (to < count && sorted[to] / 1e6 < bound) {
+                                to++;
+                        }
+                        if (to > from) {
+                                out.append(String.format(Locale.ROOT, "    < %8.2f ms %9d  %s%n", bound, to - from,
+                                                bar(to - from)));
+                        }
+                        from = to;
+                        bound *= 2;
+                }
+                return out.toString();
+        }
+
+        private String bar(int n) {
+                return "#".repeat((int) Math.ceil(50.0 * n / count));
+        }
+
+        private static double millis(long[] sorted, double quantile) {
+                if (sorted.length == 0) {
+                        return 0;
+                }
+                int index = (int) Math.ceil(quantile * sorted.length) - 1;
+                return sorted[Math.max(index, 0)] / 1e6;
+        }
+}
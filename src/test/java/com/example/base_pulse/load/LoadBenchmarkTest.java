@@ -0,0 +1,266 @@
+package com.example.base_pulse.load;
+
+import com.example.base_pulse.demo.DemoApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// End-to-end latency and throughput of /dynamic/{entity} and the BaseController
+// endpoints through Tomcat, Spring MVC and an embedded H2 database.
+// Run with: mvn test -Dtest=LoadBenchmarkTest -Dbenchmark=true
+// Tunables: -Dload.rows=1000000 -Dload.threads=16 -Dload.warmup=5 -Dload.seconds=20 -Dload.seed=42
+// The report is printed and written to target/load-report.txt.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(classes = DemoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+                "spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "server.tomcat.threads.max=256" })
+public class LoadBenchmarkTest {
+
+        private static final int ROWS = Integer.getInteger("load.rows", 1_000_000);
+        private static final int ADDRESSES = Math.max(ROWS / 10, 1);
+        private static final int THREADS = Integer.getInteger("load.threads", 16);
+        private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup", 5));
+        private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.seconds", 20));
+        private static final long SEED = Long.getLong("load.seed", 42L);
+        private static final int PAGE = 50;
+
+        private static final String[] NAMES = SyntheticDataGenerator.firstNames();
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private JdbcTemplate jdbc;
+
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final StringBuilder report = new StringBuilder();
+        private final ThreadLocal<String> cursor = new ThreadLocal<>();
+
+        private long firstId;
+        private long lastId;
+
+        @BeforeAll
+        void generate() {
+                long start = System.nanoTime();
+                new SyntheticDataGenerator(jdbc, SEED).generate(ROWS, ADDRESSES);
+                firstId = jdbc.queryForObject("select min(id) from person", Long.class);
+                lastId = jdbc.queryForObject("select max(id) from person", Long.class);
+
+                report.append(String.format("dataset: %d persons, %d addresses, seed %d, generated in %.1f s%n",
+                                ROWS, ADDRESSES, SEED, (System.nanoTime() - start) / 1e9));
+                report.append(String.format("host: %d cpus, java %s, max heap %d MB%n",
+                                Runtime.getRuntime().availableProcessors(), Runtime.version(),
+                                Runtime.getRuntime().maxMemory() >> 20));
+                report.append(String.format("load: %d threads, %d s warmup, %d s measured per workload%n%n",
+                                THREADS, WARMUP.toSeconds(), DURATION.toSeconds()));
+        }
+
+        @Test
+        void workloads() throws Exception {
+                run("filter-heavy", List.of(
+                                new LoadDriver.Step("dynamic age+name", 50, this::filterByAgeAndName),
+                                new LoadDriver.Step("dynamic city join", 25, this::filterByCity),
+                                new LoadDriver.Step("dynamic prefix", 25, this::filterByPrefix)));
+
+                run("deep-paging", List.of(
+                                new LoadDriver.Step("offset deep page", 50, this::offsetDeepPage),
+                                new LoadDriver.Step("keyset next page", 50, this::keysetNextPage)));
+
+                run("patch-heavy", List.of(
+                                new LoadDriver.Step("PATCH /persons/{id}", 80, this::patchPerson),
+                                new LoadDriver.Step("GET /persons/{id}", 20, this::getPerson)));
+
+                run("mixed", List.of(
+                                new LoadDriver.Step("dynamic age+name", 40, this::filterByAgeAndName),
+                                new LoadDriver.Step("dynamic city join", 10, this::filterByCity),
+                                new LoadDriver.Step("keyset next page", 15, this::keysetNextPage),
+                                new LoadDriver.Step("GET /persons/{id}", 15, this::getPerson),
+                                new LoadDriver.Step("GET /persons", 5, this::listPersons),
+                                new LoadDriver.Step("PATCH /persons/{id}", 10, this::patchPerson),
+                                new LoadDriver.Step("POST /persons", 5, this::createPerson)));
+
+                System.out.print(report);
+                Path out = Path.of("target", "load-report.txt");
+                Files.createDirectories(out.getParent());
+                Files.writeString(out, report, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+                assertThat(report).doesNotContain("NaN");
+        }
+
+        private void run(String workload, List<LoadDriver.Step> mix) throws InterruptedException {
+                cursor.remove();
+                Map<String, LatencyHistogram> results = new LoadDriver(THREADS, WARMUP, DURATION).run(mix);
+
+                LatencyHistogram all = new LatencyHistogram();
+                results.values().forEach(all::merge);
+
+                double seconds = DURATION.toNanos() / 1e9;
+                report.append("== ").append(workload).append(" ==\n");
+                results.forEach((name, h) -> report.append(h.report(name, seconds)));
+                report.append(all.report("total", seconds)).append('\n');
+        }
+
+        // ---- operations
+
+        private boolean filterByAgeAndName(ThreadLocalRandom random) throws IOException, InterruptedException {
+                int age = random.nextInt(95);
+                return get("/dynamic/Person", params(
+                                "fields", "id,firstName,lastName,age",
+                                "filters[0][field]", "age",
+                                "filters[0][operator]", "between",
+                                "filters[0][value][0]", String.valueOf(age),
+                                "filters[0][value][1]", String.valueOf(age + 5),
+                                "filters[1][field]", "firstName",
+                                "filters[1][operator]", "eq",
+                                "filters[1][value]", NAMES[random.nextInt(NAMES.length)],
+                                "size", String.valueOf(PAGE))).statusCode() == 200;
+        }
+
+        private boolean filterByCity(ThreadLocalRandom random) throws IOException, InterruptedException {
+                return get("/dynamic/Person", params(
+                                "fields", "id,lastName",
+                                "filters[0][field]", "address.city",
+                                "filters[0][operator]", "eq",
+                                "filters[0][value]", "city" + random.nextInt(Math.max(ADDRESSES / 4, 1)),
+                                "filters[1][field]", "age",
+                                "filters[1][operator]", "gte",
+                                "filters[1][value]", String.valueOf(random.nextInt(100)),
+                                "size", String.valueOf(PAGE))).statusCode() == 200;
+        }
+
+        private boolean filterByPrefix(ThreadLocalRandom random) throws IOException, InterruptedException {
+                return get("/dynamic/Person", params(
+                                "fields", "id,lastName",
+                                "filters[0][field]", "lastName",
+                                "filters[0][operator]", "startswith",
+                                "filters[0][value]", "last" + random.nextInt(1000),
+                                "count", "capped",
+                                "size", String.valueOf(PAGE))).statusCode() == 200;
+        }
+
+        private boolean offsetDeepPage(ThreadLocalRandom random) throws IOException, InterruptedException {
+                int lastPage = Math.max(ROWS / PAGE - 1, 1);
+                return get("/dynamic/Person", params(
+                                "fields", "id,lastName",
+                                "sort[0][field]", "lastName",
+                                "sort[0][order]", "asc",
+                                "paging", "offset",
+                                "count", "none",
+                                "page", String.valueOf(lastPage / 2 + random.nextInt(lastPage / 2 + 1)),
+                                "size", String.valueOf(PAGE))).statusCode() == 200;
+        }
+
+        // each worker walks forward from the first page, one page per call
+        private boolean keysetNextPage(ThreadLocalRandom random) throws IOException, InterruptedException {
+                Map<String, String> params = params(
+                                "fields", "id,lastName",
+                                "sort[0][field]", "lastName",
+                                "sort[0][order]", "asc",
+                                "count", "none",
+                                "size", String.valueOf(PAGE));
+                if (cursor.get() != null) {
+                        params.put("cursor", cursor.get());
+                }
+
+                HttpResponse<String> response = get("/dynamic/Person", params);
+                if (response.statusCode() != 200) {
+                        cursor.remove();
+                        return false;
+                }
+                JsonNode next = mapper.readTree(response.body()).get("nextCursor");
+                cursor.set(next == null || next.isNull() ? null : next.asText());
+                return true;
+        }
+
+        private boolean getPerson(ThreadLocalRandom random) throws IOException, InterruptedException {
+                return get("/persons/" + randomId(random), Map.of()).statusCode() == 200;
+        }
+
+        private boolean listPersons(ThreadLocalRandom random) throws IOException, InterruptedException {
+                return get("/persons", params(
+                                "filters[0][field]", "firstName",
+                                "filters[0][operator]", "eq",
+                                "filters[0][value]", NAMES[random.nextInt(NAMES.length)],
+                                "size", "20")).statusCode() == 200;
+        }
+
+        private boolean patchPerson(ThreadLocalRandom random) throws IOException, InterruptedException {
+                String body = "{\"age\":" + random.nextInt(100) + ",\"lastName\":\"patched" + random.nextInt(1000)
+                                + "\"}";
+                return send("PATCH", "/persons/" + randomId(random), body).statusCode() == 200;
+        }
+
+        private boolean createPerson(ThreadLocalRandom random) throws IOException, InterruptedException {
+                String body = "{\"firstName\":\"" + NAMES[random.nextInt(NAMES.length)] + "\",\"lastName\":\"new"
+                                + random.nextInt(100000) + "\",\"age\":" + random.nextInt(100) + "}";
+                int status = send("POST", "/persons", body).statusCode();
+                return status == 200 || status == 201;
+        }
+
+        // ---- http
+
+        private long randomId(ThreadLocalRandom random) {
+                return random.nextLong(firstId, lastId + 1);
+        }
+
+        private HttpResponse<String> get(String path, Map<String, String> params)
+                        throws IOException, InterruptedException {
+                String query = params.entrySet().stream()
+                                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                                .collect(Collectors.joining("&"));
+                URI uri = URI.create("http://localhost:" + port + path + (query.isEmpty() ? "" : "?" + query));
+                return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        private HttpResponse<String> send(String method, String path, String json)
+                        throws IOException, InterruptedException {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                                .header("Content-Type", "application/json")
+                                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                                .build();
+                return client.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+
+        private static Map<String, String> params(String... pairs) {
+                Map<String, String> params = new LinkedHashMap<>();
+                for (int i = 0; i < pairs.length; i += 2) {
+                        params.put(pairs[i], pairs[i + 1]);
+                }
+                return params;
+        }
+
+        private static String encode(String value) {
+                return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+}
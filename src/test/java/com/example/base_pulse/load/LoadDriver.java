@@ -0,0 +1,97 @@
+package com.example.base_pulse.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Runs a weighted mix of operations on a fixed number of closed-loop workers:
+// each worker starts its next request as soon as the previous one returns.
+public class LoadDriver {
+
+        @FunctionalInterface
+        public interface Operation {
+                // true when the response was the expected one
+                boolean run(ThreadLocalRandom random) throws Exception;
+        }
+
+        public record Step(String name, int weight, Operation operation) {
+        }
+
+        private final int threads;
+        private final Duration warmup;
+        private final Duration duration;
+
+        public LoadDriver(int threads, Duration warmup, Duration duration) {
+                this.threads = threads;
+                this.warmup = warmup;
+                this.duration = duration;
+        }
+
+        public Map<String, LatencyHistogram> run(List<Step> mix) throws InterruptedException {
+                int totalWeight = mix.stream().mapToInt(Step::weight).sum();
+                long measureFrom = System.nanoTime() + warmup.toNanos();
+                long stopAt = measureFrom + duration.toNanos();
+
+                List<Map<String, LatencyHistogram>> perThread = new ArrayList<>();
+                CountDownLatch done = new CountDownLatch(threads);
+
+                for (int t = 0; t < threads; t++) {
+                        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+                        mix.forEach(step -> histograms.put(step.name(), new LatencyHistogram()));
+                        perThread.add(histograms);
+
+                        Thread worker = new Thread(() -> {
+                                try {
+                                        loop(mix, totalWeight, histograms, measureFrom, stopAt);
+                                } finally {
+                                        done.countDown();
+                                }
+                        }, "load-" + t);
+                        worker.setDaemon(true);
+                        worker.start();
+                }
+                done.await();
+
+                Map<String, LatencyHistogram> merged = new LinkedHashMap<>();
+                mix.forEach(step -> merged.put(step.name(), new LatencyHistogram()));
+                for (Map<String, LatencyHistogram> histograms : perThread) {
+                        histograms.forEach((name, h) -> merged.get(name).merge(h));
+                }
+                return merged;
+        }
+
+        private static void loop(List<Step> mix, int totalWeight, Map<String, LatencyHistogram> histograms,
+                        long measureFrom, long stopAt) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long now;
+                while ((now = System.nanoTime()) < stopAt) {
+                        Step step = pick(mix, random.nextInt(totalWeight));
+
+                        boolean ok;
+                        try {
+                                ok = step.operation().run(random);
+                        } catch (Exception e) {
+                                ok = false;
+                        }
+                        long end = System.nanoTime();
+
+                        if (now >= measureFrom) {
+                                histograms.get(step.name()).record(end - now, ok);
+                        }
+                }
+        }
+
+        private static Step pick(List<Step> mix, int ticket) {
+                for (Step step : mix) {
+                        ticket -= step.weight();
+                        if (ticket < 0) {
+                                return step;
+                        }
+                }
+                return mix.get(mix.size() - 1);
+        }
+}
@@ -0,0 +1,50 @@
+package com.example.base_pulse.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Fills the Person/Address tables straight from SQL so millions of rows take
+// seconds rather than going through the persistence context. Every value is
+// a hash of the row number and the seed, so a seed always yields the same data.
+public class SyntheticDataGenerator {
+
+        private static final String[] FIRST_NAMES = { "Ada", "Alan", "Barbara", "Claude", "Donald", "Edsger",
+                        "Frances", "Grace", "John", "Ken", "Leslie", "Margaret", "Niklaus", "Radia", "Tony" };
+
+        private final JdbcTemplate jdbc;
+        private final long seed;
+
+        public SyntheticDataGenerator(JdbcTemplate jdbc, long seed) {
+                this.jdbc = jdbc;
+                this.seed = seed;
+        }
+
+        public void generate(int persons, int addresses) {
+                jdbc.update("insert into address (city) select 'city' || mod(x * 7919 + ?, ?) "
+                                + "from system_range(1, ?)", seed, Math.max(addresses / 4, 1), addresses);
+                long firstAddress = jdbc.queryForObject("select min(id) from address", Long.class);
+
+                // names cycle through a small list so equality filters hit many rows; ages
+                // spread over 0..99, and one person in twenty has no address
+                jdbc.update("insert into person (first_name, last_name, age, address_id) select "
+                                + "case mod(x * 31 + ?, " + FIRST_NAMES.length + ") " + nameCases() + " end, "
+                                + "'last' || mod(x * 2654435761 + ?, 100000), "
+                                + "mod(x * 40503 + ?, 100), "
+                                + "case when mod(x, 20) = 0 then null else ? + mod(x * 48271 + ?, ?) end "
+                                + "from system_range(1, ?)",
+                                seed, seed, seed, firstAddress, seed, addresses, persons);
+
+                jdbc.execute("analyze");
+        }
+
+        public static String[] firstNames() {
+                return FIRST_NAMES.clone();
+        }
+
+        private static String nameCases() {
+                StringBuilder cases = new StringBuilder();
+                for (int i = 0; i < FIRST_NAMES.length; i++) {
+                        cases.append("when ").append(i).append(" then '").append(FIRST_NAMES[i]).append("' ");
+                }
+                return cases.toString();
+        }
+}
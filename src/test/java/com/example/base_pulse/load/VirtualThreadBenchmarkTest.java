@@ -0,0 +1,199 @@
+package com.example.base_pulse.load;
+
+import com.example.base_pulse.demo.DemoApplication;
+import com.example.base_pulse.utils.BackgroundTasks;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The same workload with spring.threads.virtual.enabled off and on, at more
+// concurrent clients than Tomcat has platform threads. H2 runs as a TCP server
+// so every statement is a real socket round trip. Pinned virtual threads are
+// counted from JFR (jdk.VirtualThreadPinned) together with the frame that pinned.
+// Run with: mvn test -Dtest=VirtualThreadBenchmarkTest -Dbenchmark=true (on Java 21+)
+// Tunables: -Dvt.rows=100000 -Dvt.clients=400 -Dvt.pool=32 -Dvt.tomcat-threads=200 -Dvt.warmup=3 -Dvt.seconds=10
+// The report is printed and written to target/virtual-thread-report.txt.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class VirtualThreadBenchmarkTest {
+
+        private static final int ROWS = Integer.getInteger("vt.rows", 100_000);
+        private static final int CLIENTS = Integer.getInteger("vt.clients", 400);
+        private static final int POOL = Integer.getInteger("vt.pool", 32);
+        private static final int TOMCAT_THREADS = Integer.getInteger("vt.tomcat-threads", 200);
+        private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("vt.warmup", 3));
+        private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("vt.seconds", 10));
+
+        private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final StringBuilder report = new StringBuilder();
+
+        private Server h2;
+        private int port;
+        private long firstId;
+        private long lastId;
+
+        @BeforeAll
+        void startDatabase() throws SQLException {
+                h2 = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+                report.append(String.format("host: %d cpus, java %s, max heap %d MB%n",
+                                Runtime.getRuntime().availableProcessors(), Runtime.version(),
+                                Runtime.getRuntime().maxMemory() >> 20));
+                report.append(String.format("load: %d clients, %d pooled connections, %d tomcat threads (platform),"
+                                + " %d s warmup, %d s measured%n%n",
+                                CLIENTS, POOL, TOMCAT_THREADS, WARMUP.toSeconds(), DURATION.toSeconds()));
+        }
+
+        @AfterAll
+        void stopDatabase() {
+                if (h2 != null) {
+                        h2.stop();
+                }
+        }
+
+        @Test
+        void platformVersusVirtual() throws Exception {
+                run(false);
+                run(true);
+
+                System.out.print(report);
+                Path out = Path.of("target", "virtual-thread-report.txt");
+                Files.createDirectories(out.getParent());
+                Files.writeString(out, report, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+                assertThat(report).doesNotContain("NaN");
+        }
+
+        private void run(boolean virtual) throws InterruptedException {
+                try (ConfigurableApplicationContext context = start(virtual)) {
+                        assertThat(context.getBean(BackgroundTasks.class).isVirtual()).isEqualTo(virtual);
+                        port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+                        if (jdbc.queryForObject("select count(*) from person", Long.class) == 0) {
+                                new SyntheticDataGenerator(jdbc, 42L).generate(ROWS, Math.max(ROWS / 10, 1));
+                        }
+                        firstId = jdbc.queryForObject("select min(id) from person", Long.class);
+                        lastId = jdbc.queryForObject("select max(id) from person", Long.class);
+
+                        LongAdder pinned = new LongAdder();
+                        Map<String, LongAdder> pinnedAt = new ConcurrentHashMap<>();
+                        Map<String, LatencyHistogram> results;
+                        threads.resetPeakThreadCount();
+                        try (RecordingStream jfr = new RecordingStream()) {
+                                jfr.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+                                jfr.onEvent("jdk.VirtualThreadPinned", event -> {
+                                        pinned.increment();
+                                        pinnedAt.computeIfAbsent(frame(event.getStackTrace() == null ? List.of()
+                                                        : event.getStackTrace().getFrames()), f -> new LongAdder())
+                                                        .increment();
+                                });
+                                jfr.startAsync();
+
+                                results = new LoadDriver(CLIENTS, WARMUP, DURATION).run(List.of(
+                                                new LoadDriver.Step("dynamic age page", 70, this::agePage),
+                                                new LoadDriver.Step("GET /persons/{id}", 30, this::getPerson)));
+                        }
+                        int peak = threads.getPeakThreadCount();
+
+                        LatencyHistogram all = new LatencyHistogram();
+                        results.values().forEach(all::merge);
+                        double seconds = DURATION.toNanos() / 1e9;
+                        report.append("== ").append(virtual ? "virtual" : "platform").append(" threads ==\n");
+                        results.forEach((name, h) -> report.append(h.report(name, seconds)));
+                        report.append(all.report("total", seconds));
+                        report.append(String.format("peak platform threads: %d (includes %d client threads)%n",
+                                        peak, CLIENTS));
+                        report.append(String.format("pinned virtual threads: %d%n", pinned.sum()));
+                        new TreeMap<>(pinnedAt).forEach((frame, n) -> report.append(
+                                        String.format("  %6d  %s%n", n.sum(), frame)));
+                        report.append('\n');
+                }
+        }
+
+        private ConfigurableApplicationContext start(boolean virtual) {
+                return new SpringApplicationBuilder(DemoApplication.class)
+                                .properties(
+                                                "server.port=0",
+                                                "spring.threads.virtual.enabled=" + virtual,
+                                                "spring.datasource.url=jdbc:h2:tcp://localhost:" + h2.getPort()
+                                                                + "/mem:virtual;DB_CLOSE_DELAY=-1",
+                                                "spring.datasource.hikari.maximum-pool-size=" + POOL,
+                                                "spring.datasource.hikari.connection-timeout=60000",
+                                                "spring.jpa.hibernate.ddl-auto=update",
+                                                "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                                                "base-pulse.bulkhead.enabled=false",
+                                                "base-pulse.query.coalesce=false",
+                                                "base-pulse.slow-query.threshold-ms=-1",
+                                                "logging.level.root=WARN")
+                                .run();
+        }
+
+        // the first frame of ours or, failing that, the innermost one
+        private static String frame(List<RecordedFrame> frames) {
+                for (RecordedFrame frame : frames) {
+                        if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith("com.example")) {
+                                return describe(frame);
+                        }
+                }
+                return frames.isEmpty() ? "(no stack)" : describe(frames.get(0));
+        }
+
+        private static String describe(RecordedFrame frame) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+                                + frame.getLineNumber();
+        }
+
+        // ---- operations
+
+        private boolean agePage(ThreadLocalRandom random) throws Exception {
+                int age = random.nextInt(95);
+                return get("/dynamic/Person?fields=id,firstName,lastName,age&count=none&size=20"
+                                + "&filters%5B0%5D%5Bfield%5D=age&filters%5B0%5D%5Boperator%5D=eq"
+                                + "&filters%5B0%5D%5Bvalue%5D=" + age) == 200;
+        }
+
+        private boolean getPerson(ThreadLocalRandom random) throws Exception {
+                return get("/persons/" + random.nextLong(firstId, lastId + 1)) == 200;
+        }
+
+        private int get(String path) throws Exception {
+                URI uri = URI.create("http://localhost:" + port + path);
+                return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+        }
+}